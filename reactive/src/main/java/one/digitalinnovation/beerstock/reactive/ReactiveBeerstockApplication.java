@@ -0,0 +1,13 @@
+package one.digitalinnovation.beerstock.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveBeerstockApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveBeerstockApplication.class, args);
+	}
+
+}
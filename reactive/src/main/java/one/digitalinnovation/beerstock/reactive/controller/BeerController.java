@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstock.reactive.controller;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.reactive.service.BeerService;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import javax.validation.Valid;
+
+/**
+ * The catalog and stock endpoints of {@code api/v1/beers}, with the same
+ * paths, bodies, headers and statuses as the servlet application.
+ */
+@RestController
+@RequestMapping(value = "api/v1/beers")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final BeerService beerService;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<BeerDTO>>> listBeers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit) {
+
+        return beerService.listAll(after, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+                    if(page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+
+                    return response.body(page.getBeers());
+                });
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return beerService.findByName(name);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.createBeer(beerDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuatityDTO quatityDTO) {
+        return beerService.increment(id, quatityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<BeerDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuatityDTO quatityDTO) {
+        return beerService.decrement(id, quatityDTO.getQuantity());
+    }
+}
@@ -0,0 +1,50 @@
+package one.digitalinnovation.beerstock.reactive.entity;
+
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.util.Locale;
+
+/**
+ * Row of the same {@code beer} table the servlet application maps with
+ * JPA. R2DBC has no lifecycle callbacks, so {@code normalizedName} is set
+ * by the service before every insert.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("beer")
+public class Beer {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String normalizedName;
+
+    private String brand;
+
+    private int max;
+
+    private int quantity;
+
+    private int reserved;
+
+    private BeerType type;
+
+    @Version
+    private Long version;
+
+    /** Same normalization as the servlet application, which shares the unique index. */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.reactive.mapper;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.reactive.entity.Beer;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface BeerMapper {
+
+    BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
+
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reserved", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
+    Beer toModel(BeerDTO beerDTO);
+    BeerDTO toDTO(Beer beer);
+}
@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstock.reactive.repository;
+
+import one.digitalinnovation.beerstock.reactive.entity.Beer;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface BeerRepository extends ReactiveCrudRepository<Beer, Long> {
+
+    Mono<Beer> findByNormalizedName(String normalizedName);
+
+    @Query("SELECT * FROM beer WHERE id > :id ORDER BY id LIMIT :limit")
+    Flux<Beer> findPage(long id, int limit);
+
+    /**
+     * Adds {@code quantity} to the stock in a single conditional statement.
+     *
+     * @return 1 when the stock was incremented, 0 when the beer does not
+     * exist or the result would exceed its max capacity
+     */
+    @Modifying
+    @Query("UPDATE beer SET quantity = quantity + :quantity, version = version + 1 " +
+            "WHERE id = :id AND quantity + :quantity <= max")
+    Mono<Integer> incrementStock(Long id, int quantity);
+
+    /**
+     * Subtracts {@code quantity} from the stock in a single conditional statement.
+     *
+     * @return 1 when the stock was decremented, 0 when the beer does not
+     * exist or the result would dip into the reserved units
+     */
+    @Modifying
+    @Query("UPDATE beer SET quantity = quantity - :quantity, version = version + 1 " +
+            "WHERE id = :id AND quantity - :quantity >= reserved")
+    Mono<Integer> decrementStock(Long id, int quantity);
+}
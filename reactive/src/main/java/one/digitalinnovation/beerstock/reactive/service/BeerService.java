@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.reactive.service;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.pagination.BeerCursor;
+import one.digitalinnovation.beerstock.reactive.entity.Beer;
+import one.digitalinnovation.beerstock.reactive.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.reactive.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of the servlet application's {@code BeerService}
+ * for the catalog and stock endpoints. Failures are signalled with the same
+ * exceptions, so they map to the same HTTP statuses. Stock changes use the
+ * same conditional UPDATEs as its atomic strategy.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        String normalizedName = Beer.normalize(beerDTO.getName());
+
+        return beerRepository.findByNormalizedName(normalizedName)
+                .flatMap(registered -> Mono.<Beer>error(new BeerAlreadyRegisteredException(beerDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> {
+                    Beer beerToCreate = beerMapper.toModel(beerDTO);
+                    beerToCreate.setId(null);
+                    beerToCreate.setNormalizedName(normalizedName);
+
+                    return beerRepository.save(beerToCreate);
+                }))
+                .map(beerMapper::toDTO);
+    }
+
+    /**
+     * Finds a beer by name, ignoring case.
+     */
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByNormalizedName(Beer.normalize(name))
+                .map(beerMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)));
+    }
+
+    public Mono<BeerPageDTO> listAll(String after, int limit) {
+        long afterId;
+
+        try {
+            afterId = BeerCursor.decode(after);
+        } catch(InvalidCursorException e) {
+            return Mono.error(e);
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        return beerRepository.findPage(afterId, pageSize + 1)
+                .map(beerMapper::toDTO)
+                .collectList()
+                .map(beers -> toPage(beers, pageSize));
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return verifyIfExists(id)
+                .flatMap(beer -> beerRepository.deleteById(id));
+    }
+
+    @Transactional
+    public Mono<BeerDTO> increment(Long id, int quantity) {
+        return beerRepository.incrementStock(id, quantity)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? verifyIfExists(id).then(Mono.<Beer>error(new BeerStockExceededException()))
+                        : verifyIfExists(id))
+                .map(beerMapper::toDTO);
+    }
+
+    @Transactional
+    public Mono<BeerDTO> decrement(Long id, int quantity) {
+        return beerRepository.decrementStock(id, quantity)
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? verifyIfExists(id).then(Mono.<Beer>error(new BeerStockNegativeException()))
+                        : verifyIfExists(id))
+                .map(beerMapper::toDTO);
+    }
+
+    private BeerPageDTO toPage(List<BeerDTO> beers, int pageSize) {
+        boolean hasNext = beers.size() > pageSize;
+        List<BeerDTO> pageBeers = hasNext ? beers.subList(0, pageSize) : beers;
+
+        String nextCursor = hasNext
+                ? BeerCursor.encode(pageBeers.get(pageSize - 1).getId())
+                : null;
+
+        return new BeerPageDTO(pageBeers, nextCursor);
+    }
+
+    private Mono<Beer> verifyIfExists(Long id) {
+        return beerRepository.findById(id)
+                .switchIfEmpty(Mono.error(BeerNotFoundException::new));
+    }
+}
@@ -0,0 +1,17 @@
+-- Same columns and indexes as the beer table the servlet application generates with JPA. Ids come
+-- from an identity column instead of its pooled beer_sequence, as R2DBC reads generated keys back,
+-- so the two applications must not write to the same database.
+CREATE TABLE IF NOT EXISTS beer (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    normalized_name VARCHAR(255) NOT NULL UNIQUE,
+    brand VARCHAR(255) NOT NULL,
+    max INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    reserved INTEGER NOT NULL DEFAULT 0,
+    type VARCHAR(255) NOT NULL,
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_beer_type ON beer (type, id);
+CREATE INDEX IF NOT EXISTS idx_beer_brand ON beer (brand, id);
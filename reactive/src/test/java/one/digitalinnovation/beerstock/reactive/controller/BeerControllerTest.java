@@ -0,0 +1,166 @@
+package one.digitalinnovation.beerstock.reactive.controller;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.reactive.repository.BeerRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class BeerControllerTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll().block();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenABeerIsCreatedAndFoundIgnoringCase() {
+
+        // WHEN
+        createBeer("Brahma", 50, 10);
+
+        // THEN
+        webTestClient.get().uri(BEER_API_URL_PATH + "/BRAHMA")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Brahma")
+                .jsonPath("$.quantity").isEqualTo(10);
+    }
+
+    @Test
+    void whenPOSTIsCalledWithARegisteredNameThenBadRequestIsReturned() {
+
+        // GIVEN
+        createBeer("Brahma", 50, 10);
+
+        // THEN
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .bodyValue(beer("brahma", 50, 10))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPATCHIncrementIsCalledThenTheStockIsIncremented() {
+
+        // GIVEN
+        BeerDTO beerDTO = createBeer("Brahma", 50, 10);
+
+        // THEN
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/increment")
+                .bodyValue(new QuatityDTO(5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.quantity").isEqualTo(15);
+    }
+
+    @Test
+    void whenPATCHIncrementIsGreaterThanMaxThenBadRequestIsReturned() {
+
+        // GIVEN
+        BeerDTO beerDTO = createBeer("Brahma", 50, 10);
+
+        // THEN
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/increment")
+                .bodyValue(new QuatityDTO(41))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPATCHDecrementIsGreaterThanQuantityThenBadRequestIsReturned() {
+
+        // GIVEN
+        BeerDTO beerDTO = createBeer("Brahma", 50, 10);
+
+        // THEN
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/decrement")
+                .bodyValue(new QuatityDTO(11))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPATCHIsCalledWithAnUnknownIdThenNotFoundIsReturned() {
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/1000/decrement")
+                .bodyValue(new QuatityDTO(1))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGETIsCalledWithALimitThenTheNextPageCursorIsReturned() {
+
+        // GIVEN
+        createBeer("Brahma", 50, 10);
+        createBeer("Skol", 50, 10);
+
+        // THEN
+        String cursor = webTestClient.get().uri(BEER_API_URL_PATH + "?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(BeerController.NEXT_CURSOR_HEADER)
+                .returnResult(BeerDTO.class)
+                .getResponseHeaders()
+                .getFirst(BeerController.NEXT_CURSOR_HEADER);
+
+        webTestClient.get().uri(BEER_API_URL_PATH + "?limit=1&after=" + cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(BeerController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Skol");
+    }
+
+    @Test
+    void whenDELETEIsCalledThenTheBeerIsRemoved() {
+
+        // GIVEN
+        BeerDTO beerDTO = createBeer("Brahma", 50, 10);
+
+        // WHEN
+        webTestClient.delete().uri(BEER_API_URL_PATH + "/" + beerDTO.getId())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NO_CONTENT);
+
+        // THEN
+        assertThat(beerRepository.count().block(), is(0L));
+    }
+
+    private BeerDTO createBeer(String name, int max, int quantity) {
+        return webTestClient.post().uri(BEER_API_URL_PATH)
+                .bodyValue(beer(name, max, quantity))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BeerDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private BeerDTO beer(String name, int max, int quantity) {
+        return new BeerDTO(null, name, "Ambev", max, quantity, BeerType.LAGER);
+    }
+}
@@ -0,0 +1,52 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of writing a list response, at page size, default listing
+ * size and full catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerSerializationBenchmark {
+
+    @Param({"50", "500", "10000"})
+    private int catalogSize;
+
+    private ObjectWriter beersWriter;
+
+    private List<BeerDTO> beers;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        beersWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, BeerDTO.class));
+
+        beers = new ArrayList<>(catalogSize);
+        for(long id = 1; id <= catalogSize; id++) {
+            beers.add(BeerDTOBuilder.builder()
+                    .id(id)
+                    .name("Beer " + id)
+                    .build()
+                    .toBeerDTO());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeBeers() throws JsonProcessingException {
+        return beersWriter.writeValueAsBytes(beers);
+    }
+}
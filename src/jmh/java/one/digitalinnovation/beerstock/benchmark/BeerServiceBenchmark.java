@@ -0,0 +1,128 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import org.openjdk.jmh.annotations.*;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BeerService hot paths against the embedded H2 database, through the real
+ * Spring context (transactions, cache and event listeners included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BeerServiceBenchmark {
+
+    private static final int HALF_STOCK = Integer.MAX_VALUE / 2;
+
+    @Param({"1000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerService beerService;
+
+    private BeerCache beerCache;
+
+    private List<Long> ids;
+
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        beerService = context.getBean(BeerService.class);
+        beerCache = context.getBean(BeerCache.class);
+
+        BeerRepository beerRepository = context.getBean(BeerRepository.class);
+        List<Beer> beers = new ArrayList<>(catalogSize);
+
+        for(int i = 0; i < catalogSize; i++) {
+            BeerDTO beerDTO = BeerDTOBuilder.builder()
+                    .id(null)
+                    .name("Beer " + i)
+                    .max(Integer.MAX_VALUE)
+                    .quantity(HALF_STOCK)
+                    .build()
+                    .toBeerDTO();
+
+            beers.add(BeerMapper.INSTANCE.toModel(beerDTO));
+        }
+
+        ids = new ArrayList<>(catalogSize);
+        names = new ArrayList<>(catalogSize);
+
+        for(Beer beer : beerRepository.saveAll(beers)) {
+            ids.add(beer.getId());
+            names.add(beer.getName());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next(int size) {
+            next = (next + 1) % size;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public BeerDTO increment(Cursor cursor)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+
+        return beerService.increment(ids.get(cursor.next(ids.size())), 1);
+    }
+
+    @Benchmark
+    public BeerDTO decrement(Cursor cursor)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException {
+
+        return beerService.decrement(ids.get(cursor.next(ids.size())), 1);
+    }
+
+    @Benchmark
+    public BeerDTO findByNameCached(Cursor cursor) throws BeerNotFoundException {
+        return beerService.findByName(names.get(cursor.next(names.size())));
+    }
+
+    @Benchmark
+    public BeerDTO findByNameUncached(Cursor cursor) throws BeerNotFoundException {
+        String name = names.get(cursor.next(names.size()));
+        beerCache.evict(Beer.normalize(name));
+
+        return beerService.findByName(name);
+    }
+}
@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of beers keyed by {@link Beer#normalize normalized} name.
+ *
+ * <p>Entries are invalidated once the writing transaction has committed, and
+ * Caffeine blocks an invalidation until a concurrent load of the same key
+ * completes, so a load that raced with a write can never outlive it.</p>
+ */
+@Component
+public class BeerCache {
+
+    public static final String CACHE_NAME = "beers";
+
+    private final Cache<String, BeerDTO> cache;
+
+    @Autowired
+    public BeerCache(BeerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached beer, loading it on a miss. A {@code null} from the
+     * loader means "not found" and is not cached.
+     */
+    public BeerDTO get(String name, Function<String, BeerDTO> loader) {
+        return cache.get(name, loader);
+    }
+
+    public void evict(String name) {
+        cache.invalidate(name);
+    }
+
+    /** Runs before other listeners, so none of them can load the stale entry back from here. */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        evict(Beer.normalize(event.getBeer().getName()));
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.cache;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.cache")
+public class BeerCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
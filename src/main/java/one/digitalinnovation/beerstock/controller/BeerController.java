@@ -2,17 +2,44 @@ package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.dto.BeerDTO;
 import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerBulkDTO;
+import one.digitalinnovation.beerstock.dto.BeerCreationResultDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.etag.BeerETags;
+import one.digitalinnovation.beerstock.stream.BeerChangeStream;
+import one.digitalinnovation.beerstock.stats.BeerStockStats;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.StockLedgerService;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.exception.BeerStockUnavailableException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
 
 import lombok.AllArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import javax.validation.Valid;
@@ -23,17 +50,112 @@ import javax.validation.Valid;
 public class BeerController implements BeerCotrollerDocs {
 
     private final BeerService beerService;
+    private final BeerExportService beerExportService;
+    private final StockLedgerService stockLedgerService;
+    private final BeerETags beerETags;
+    private final BeerChangeStream beerChangeStream;
+    private final BeerStockStats beerStockStats;
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public ResponseEntity<List<BeerDTO>> listBeers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request)
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        String eTag = beerETags.forPage(after, limit, fields);
+
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        BeerPageDTO page = beerService.listAll(after, limit, fields);
+
+        return pageResponse(page, eTag);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BeerDTO>> searchBeers(
+            @Valid BeerSearchDTO criteria,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request)
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        String eTag = beerETags.forSearch(criteria, after, limit, fields);
+
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        BeerPageDTO page = beerService.search(criteria, after, limit, fields);
+
+        return pageResponse(page, eTag);
+    }
+
+    @GetMapping("/low-stock")
+    public List<BeerDTO> findLowStock(
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit) {
+
+        return beerService.findLowStock(limit);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<String> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_AUTOCOMPLETE_SIZE) int limit) {
+
+        return beerService.autocomplete(prefix, limit);
+    }
+
+    @GetMapping("/stats")
+    public BeerStockStatsDTO findStockStats() {
+        return beerStockStats.snapshot();
+    }
+
+    @PostMapping("/bulk")
+    public List<BeerCreationResultDTO> createBeers(@RequestBody @Valid BeerBulkDTO beerBulkDTO) {
+        return beerService.createBeers(beerBulkDTO.getBeers());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBeers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(beerExportService::exportAll);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return beerChangeStream.subscribe();
     }
 
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name)
+    public ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request)
             throws BeerNotFoundException {
 
-        return beerService.findByName(name);
+        String knownETag = beerETags.knownForBeer(name);
+
+        if(knownETag != null && request.checkNotModified(knownETag)) {
+            return null;
+        }
+
+        long changeStamp = beerETags.changeStamp();
+        BeerDTO beerDTO = beerService.findByName(name);
+        String eTag = beerETags.forBeer(beerDTO, changeStamp);
+
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(beerDTO);
     }
 
     @PostMapping
@@ -54,17 +176,77 @@ public class BeerController implements BeerCotrollerDocs {
 
     @PatchMapping("/{id}/increment")
     public BeerDTO increment(@PathVariable Long id,
-                             @RequestBody @Valid QuatityDTO quatityDTO)
-            throws BeerNotFoundException, BeerStockExceededException {
+                             @RequestBody @Valid QuatityDTO quatityDTO,
+                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException,
+            IdempotencyKeyReusedException {
 
-        return beerService.increment(id, quatityDTO.getQuantity());
+        return beerService.increment(id, quatityDTO.getQuantity(), idempotencyKey);
     }
 
     @PatchMapping("/{id}/decrement")
     public BeerDTO decrement(@PathVariable Long id,
-                             @RequestBody @Valid QuatityDTO quatityDTO)
-            throws BeerNotFoundException, BeerStockNegativeException {
+                             @RequestBody @Valid QuatityDTO quatityDTO,
+                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException,
+            IdempotencyKeyReusedException {
+
+        return beerService.decrement(id, quatityDTO.getQuantity(), idempotencyKey);
+    }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationDTO reserve(@PathVariable Long id,
+                                  @RequestBody @Valid QuatityDTO quatityDTO)
+            throws BeerNotFoundException, BeerStockUnavailableException, ReservationsUnsupportedException {
+
+        return beerService.reserve(id, quatityDTO.getQuantity());
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public BeerDTO confirmReservation(@PathVariable Long reservationId)
+            throws ReservationNotFoundException, BeerNotFoundException, ReservationsUnsupportedException {
+
+        return beerService.confirmReservation(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseReservation(@PathVariable Long reservationId)
+            throws ReservationNotFoundException, ReservationsUnsupportedException {
+
+        beerService.releaseReservation(reservationId);
+    }
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<List<StockMovementDTO>> findMovements(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + BeerService.DEFAULT_PAGE_SIZE) int limit)
+            throws InvalidCursorException {
+
+        StockMovementPageDTO page = stockLedgerService.findMovements(id, after, limit);
+
+        return pageResponse(ResponseEntity.ok(), page.getMovements(), page.getNextCursor());
+    }
+
+    @PatchMapping("/stock")
+    public List<StockAdjustmentResultDTO> adjustStock(
+            @RequestBody @Valid StockAdjustmentBatchDTO stockAdjustmentBatchDTO) {
+
+        return beerService.adjustStock(stockAdjustmentBatchDTO.getAdjustments());
+    }
+
+    private ResponseEntity<List<BeerDTO>> pageResponse(BeerPageDTO page, String eTag) {
+        return pageResponse(ResponseEntity.ok().eTag(eTag), page.getBeers(), page.getNextCursor());
+    }
+
+    private <T> ResponseEntity<List<T>> pageResponse(ResponseEntity.BodyBuilder response,
+                                                     List<T> items, String nextCursor) {
+        if(nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
 
-        return beerService.decrement(id, quatityDTO.getQuantity());
+        return response.body(items);
     }
 }
@@ -1,15 +1,34 @@
 package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerBulkDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementDTO;
+import one.digitalinnovation.beerstock.dto.BeerCreationResultDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerStockUnavailableException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,16 +42,69 @@ public interface BeerCotrollerDocs {
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
-    @ApiOperation(value = "Find beer by a given name")
+    @ApiOperation(value = "Create many beers at once, reporting already registered names per item")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Beers processed, see the status of each item"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value")
+    })
+    List<BeerCreationResultDTO> createBeers(BeerBulkDTO beerBulkDTO);
+
+    @ApiOperation(value = "Find beer by a given name, ignoring case")
     @ApiResponses({
             @ApiResponse(code = 200, message = "Beer found successfully"),
+            @ApiResponse(code = 304, message = "Beer unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(code = 404, message = "Beer not found")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    ResponseEntity<BeerDTO> findByName(@PathVariable String name, WebRequest request)
+            throws BeerNotFoundException;
+
+    @ApiOperation(value = "List a page of beers ordered by id, continuing after the given cursor. " +
+            "The cursor for the next page is returned in the X-Next-Cursor header. " +
+            "Pass fields, e.g. id,name,quantity, to return only those fields")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of beers listed successfully"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(code = 400, message = "Invalid page cursor or unknown field")
+    })
+    ResponseEntity<List<BeerDTO>> listBeers(@RequestParam String after, @RequestParam int limit,
+                                            @RequestParam String fields, WebRequest request)
+            throws InvalidCursorException, UnknownBeerFieldException;
+
+    @ApiOperation(value = "Search beers by type, brand, quantity range and low stock, ordered by id. " +
+            "Type and brand are indexed; quantity and low stock are checked beer by beer, so to find " +
+            "beers to restock prefer /low-stock. " +
+            "The cursor for the next page is returned in the X-Next-Cursor header. " +
+            "Pass fields, e.g. id,name,quantity, to return only those fields")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of matching beers listed successfully"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(code = 400, message = "Invalid filter value, page cursor or field")
+    })
+    ResponseEntity<List<BeerDTO>> searchBeers(BeerSearchDTO criteria, @RequestParam String after,
+                                              @RequestParam int limit, @RequestParam String fields,
+                                              WebRequest request)
+            throws InvalidCursorException, UnknownBeerFieldException;
+
+    @ApiOperation(value = "List the beers with the lowest quantity relative to their max, emptiest first")
+    @ApiResponse(code = 200, message = "Beers to restock listed successfully")
+    List<BeerDTO> findLowStock(@RequestParam int limit);
+
+    @ApiOperation(value = "List beer names starting with the given prefix, ignoring case, in alphabetical order")
+    @ApiResponse(code = 200, message = "Matching beer names listed successfully")
+    List<String> autocomplete(@RequestParam String prefix, @RequestParam int limit);
 
-    @ApiOperation(value = "List all beers registered in database")
-    @ApiResponse(code = 200, message = "All beers listed successfully")
-    List<BeerDTO> listBeers();
+    @ApiOperation(value = "Total units, capacity and fill percentage per beer type and per brand")
+    @ApiResponse(code = 200, message = "Stock statistics returned successfully")
+    BeerStockStatsDTO findStockStats();
+
+    @ApiOperation(value = "Export every beer as newline-delimited JSON, streamed as it is read")
+    @ApiResponse(code = 200, message = "Catalog exported successfully")
+    ResponseEntity<StreamingResponseBody> exportBeers();
+
+    @ApiOperation(value = "Subscribe to beer changes as Server-Sent Events carrying the latest state of each " +
+            "changed beer. A resync event means changes were dropped and the catalog should be reloaded")
+    @ApiResponse(code = 200, message = "Subscribed to beer changes")
+    SseEmitter streamChanges();
 
     @ApiOperation(value = "Delete beer by a given id")
     @ApiResponses({
@@ -40,4 +112,49 @@ public interface BeerCotrollerDocs {
             @ApiResponse(code = 404, message = "Beer not found")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Hold stock of a beer until the reservation is confirmed, released or expires")
+    @ApiResponses({
+            @ApiResponse(code = 201, message = "Stock reserved successfully"),
+            @ApiResponse(code = 400, message = "Not enough unreserved stock"),
+            @ApiResponse(code = 404, message = "Beer not found"),
+            @ApiResponse(code = 501, message = "The stock strategy does not support reservations")
+    })
+    ReservationDTO reserve(@PathVariable Long id, QuatityDTO quatityDTO)
+            throws BeerNotFoundException, BeerStockUnavailableException, ReservationsUnsupportedException;
+
+    @ApiOperation(value = "Confirm a reservation, taking its units out of the stock")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Reservation confirmed successfully"),
+            @ApiResponse(code = 404, message = "Reservation not found, confirmed, released or expired"),
+            @ApiResponse(code = 501, message = "The stock strategy does not support reservations")
+    })
+    BeerDTO confirmReservation(@PathVariable Long reservationId)
+            throws ReservationNotFoundException, BeerNotFoundException, ReservationsUnsupportedException;
+
+    @ApiOperation(value = "Release a reservation, returning its units to the available stock")
+    @ApiResponses({
+            @ApiResponse(code = 204, message = "Reservation released successfully"),
+            @ApiResponse(code = 404, message = "Reservation not found, confirmed, released or expired"),
+            @ApiResponse(code = 501, message = "The stock strategy does not support reservations")
+    })
+    void releaseReservation(@PathVariable Long reservationId)
+            throws ReservationNotFoundException, ReservationsUnsupportedException;
+
+    @ApiOperation(value = "List the stock movements of a beer, oldest first. " +
+            "The cursor for the next page is returned in the X-Next-Cursor header")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of stock movements listed successfully"),
+            @ApiResponse(code = 400, message = "Invalid page cursor")
+    })
+    ResponseEntity<List<StockMovementDTO>> findMovements(@PathVariable Long id, @RequestParam String after,
+                                                         @RequestParam int limit)
+            throws InvalidCursorException;
+
+    @ApiOperation(value = "Apply a batch of stock adjustments in one transaction")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Adjustments processed, see the status of each item"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value")
+    })
+    List<StockAdjustmentResultDTO> adjustStock(StockAdjustmentBatchDTO stockAdjustmentBatchDTO);
 }
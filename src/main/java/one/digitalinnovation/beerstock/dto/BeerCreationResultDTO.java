@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.dto;
+
+import one.digitalinnovation.beerstock.enums.BeerCreationStatus;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BeerCreationResultDTO {
+
+    private String name;
+
+    private BeerCreationStatus status;
+
+    /** The created beer, only present when the status is CREATED. */
+    private BeerDTO beer;
+
+    private String message;
+}
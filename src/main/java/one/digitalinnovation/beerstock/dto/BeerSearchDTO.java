@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.dto;
+
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+
+/**
+ * Search filters, all optional and combined with AND. {@code lowStock}
+ * keeps beers whose quantity is below that fraction of their max.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchDTO {
+
+    private BeerType type;
+
+    @Size(min = 1, max = 200)
+    private String brand;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double lowStock;
+}
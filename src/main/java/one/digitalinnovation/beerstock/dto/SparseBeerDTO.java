@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A beer read with {@code ?fields=}, holding only the requested fields.
+ * The others are left out of the JSON rather than written as {@code null},
+ * which every other response keeps doing.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseBeerDTO extends BeerDTO {
+}
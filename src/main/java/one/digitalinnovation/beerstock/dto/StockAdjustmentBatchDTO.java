@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import javax.validation.constraints.NotEmpty;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentBatchDTO {
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<StockAdjustmentDTO> adjustments;
+}
@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.dto;
+
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    private StockAdjustmentStatus status;
+
+    /** Stock of the beer once the whole batch was applied. */
+    private Integer quantity;
+
+    private String message;
+}
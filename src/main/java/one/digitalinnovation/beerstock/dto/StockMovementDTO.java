@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.dto;
+
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+
+    private Long id;
+
+    private Long beerId;
+
+    private Integer delta;
+
+    private Integer resultingQuantity;
+
+    private StockMovementReason reason;
+
+    private Instant occurredAt;
+}
@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockTotalsDTO {
+
+    /** Beer type or brand the totals are grouped by. */
+    private String group;
+
+    private long beers;
+
+    private long quantity;
+
+    private long capacity;
+
+    /** {@code quantity} as a percentage of {@code capacity}. */
+    private double fillPercentage;
+}
@@ -6,21 +6,53 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
+import java.util.Locale;
 
+/**
+ * Searches filter on {@code type} or {@code brand} and page by {@code id},
+ * so each is indexed together with {@code id}: a page is then a range scan
+ * that stops after its rows. Quantity filters are checked on the rows
+ * scanned, since a quantity index could not return them in id order.
+ * Updates only write the columns that changed, so a stock change leaves
+ * every index entry untouched. Names are looked up through the unique,
+ * indexed {@code normalizedName}, which makes them case-insensitive.
+ */
 @Data
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_beer_type", columnList = "type, id"),
+        @Index(name = "idx_beer_brand", columnList = "brand, id")
+})
 public class Beer {
 
+    public static final String ID_SEQUENCE = "beer_sequence";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Pooled sequence rather than IDENTITY: Hibernate can only batch inserts
+     * when it knows the ids up front, and fetches one block of ids per
+     * {@link #ID_ALLOCATION_SIZE} inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String name;
 
+    /**
+     * {@link #name} as given by {@link #normalize}, set on every write.
+     */
+    @Column(nullable = false, unique = true)
+    private String normalizedName;
+
     @Column(nullable = false)
     private String brand;
 
@@ -30,8 +62,27 @@ public class Beer {
     @Column(nullable = false)
     private int quantity;
 
+    /**
+     * Units of {@code quantity} held by open reservations. Only
+     * {@code quantity - reserved} can be decremented or reserved.
+     */
+    @Column(nullable = false)
+    private int reserved;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
 
+    @Version
+    private Long version;
+
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = normalize(name);
+    }
 }
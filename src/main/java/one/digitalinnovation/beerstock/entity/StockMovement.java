@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstock.entity;
+
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * One applied stock change. Rows are only ever inserted, so replaying the
+ * movements of a beer up to a point in time gives its stock at that time.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_stock_movement_beer", columnList = "beerId, id"))
+public class StockMovement {
+
+    public static final String ID_SEQUENCE = "stock_movement_sequence";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = Beer.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private int resultingQuantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementReason reason;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+}
@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Stock held for a checkout until it is confirmed, released or expires.
+ * The held units are also counted in {@link Beer#getReserved()}; a row is
+ * deleted by whichever of those three happens first, which is what makes
+ * the others no-ops.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    public static final String ID_SEQUENCE = "stock_reservation_sequence";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = Beer.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,53 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+
+/**
+ * One of the counters a beer's unreserved stock is split across by the
+ * sharded strategy. Each slot holds part of the units and part of the
+ * headroom up to {@link Beer#getMax()}, so a mutation that fits in its
+ * slot only locks that row. The rows go with the beer's when it is deleted.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_stock_slot_beer_slot", columnNames = {"beer_id", "slot"}))
+public class StockSlot {
+
+    public static final String ID_SEQUENCE = "stock_slot_sequence";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = Beer.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "beer_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Beer beer;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    /** Units this slot may hold; the capacities of a beer's slots add up to its unreserved headroom. */
+    @Column(nullable = false)
+    private int capacity;
+
+    /**
+     * Mutations applied through this slot. Summed with the beer's version,
+     * it gives the version reported for the beer.
+     */
+    @Column(nullable = false)
+    private long changes;
+}
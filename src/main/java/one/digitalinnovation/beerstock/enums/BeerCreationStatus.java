@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+public enum BeerCreationStatus {
+
+    CREATED("Created"),
+    ALREADY_REGISTERED("Already registered");
+
+    private final String description;
+}
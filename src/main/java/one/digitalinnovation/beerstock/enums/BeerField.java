@@ -0,0 +1,63 @@
+package one.digitalinnovation.beerstock.enums;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.Set;
+import java.util.EnumSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Fields of a beer a listing can be narrowed to with {@code ?fields=}.
+ */
+@Getter
+@AllArgsConstructor
+public enum BeerField {
+
+    ID("id", (beer, value) -> beer.setId((Long) value)),
+    NAME("name", (beer, value) -> beer.setName((String) value)),
+    BRAND("brand", (beer, value) -> beer.setBrand((String) value)),
+    MAX("max", (beer, value) -> beer.setMax((Integer) value)),
+    QUANTITY("quantity", (beer, value) -> beer.setQuantity((Integer) value)),
+    TYPE("type", (beer, value) -> beer.setType((BeerType) value));
+
+    private final String property;
+
+    private final BiConsumer<BeerDTO, Object> setter;
+
+    public void copy(BeerDTO beerDTO, Object value) {
+        setter.accept(beerDTO, value);
+    }
+
+    /**
+     * Parses a comma-separated list of field names, e.g. {@code id,name}.
+     *
+     * @return the fields, empty when none are given
+     */
+    public static Set<BeerField> parse(String fields) throws UnknownBeerFieldException {
+        Set<BeerField> parsed = EnumSet.noneOf(BeerField.class);
+
+        if(fields == null || fields.trim().isEmpty()) {
+            return parsed;
+        }
+
+        for(String name : fields.split(",")) {
+            parsed.add(of(name.trim()));
+        }
+
+        return parsed;
+    }
+
+    private static BeerField of(String property) throws UnknownBeerFieldException {
+        for(BeerField field : values()) {
+            if(field.property.equals(property)) {
+                return field;
+            }
+        }
+
+        throw new UnknownBeerFieldException(property);
+    }
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+public enum StockAdjustmentStatus {
+
+    APPLIED("Applied"),
+    NOT_FOUND("Not found"),
+    EXCEEDED("Exceeded"),
+    NEGATIVE("Negative"),
+    CONFLICT("Conflict");
+
+    private final String description;
+}
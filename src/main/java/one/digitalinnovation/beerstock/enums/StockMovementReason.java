@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+public enum StockMovementReason {
+
+    INCREMENT("Increment"),
+    DECREMENT("Decrement"),
+    ADJUSTMENT("Batch adjustment");
+
+    private final String description;
+}
@@ -0,0 +1,109 @@
+package one.digitalinnovation.beerstock.etag;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong entity tags for catalog reads.
+ *
+ * <p>A single beer is tagged by a digest of its content. The tag last
+ * served for each name is kept until the beer changes, so a conditional
+ * read can be answered without loading the beer; the {@code BeerCache}
+ * evicts a changed beer before its tag is dropped here, so a beer loaded
+ * afterwards is never the stale cached copy. Listings are tagged by a
+ * catalog-wide change counter, bumped once a write has committed and
+ * again once a strategy that keeps the stock outside the table has
+ * written it back, since listings read the table; it starts from the boot
+ * time so tags issued by a previous run never match.</p>
+ */
+@Component
+public class BeerETags {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    /** Tags last served by {@link Beer#normalize normalized} name, dropped once the beer changes. */
+    private final Map<String, String> beerTags = new ConcurrentHashMap<>();
+
+    public String forBeer(BeerDTO beerDTO) {
+        return digest(beerDTO.getId() + "|" + beerDTO.getName() + "|" + beerDTO.getBrand() + "|"
+                + beerDTO.getMax() + "|" + beerDTO.getQuantity() + "|" + beerDTO.getType());
+    }
+
+    /**
+     * @return the tag last served for the beer named {@code name} if it has
+     * not changed since, or {@code null} when the beer must be loaded
+     */
+    public String knownForBeer(String name) {
+        return beerTags.get(Beer.normalize(name));
+    }
+
+    /**
+     * @return a stamp to read before loading a beer and pass to
+     * {@link #forBeer(BeerDTO, long)}
+     */
+    public long changeStamp() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Tags a beer loaded after {@code changeStamp} was read, and keeps the
+     * tag for {@link #knownForBeer} unless a write committed meanwhile, in
+     * which case the beer may predate it.
+     */
+    public String forBeer(BeerDTO beerDTO, long changeStamp) {
+        String eTag = forBeer(beerDTO);
+
+        synchronized(beerTags) {
+            if(catalogVersion.get() == changeStamp) {
+                beerTags.put(Beer.normalize(beerDTO.getName()), eTag);
+            }
+        }
+
+        return eTag;
+    }
+
+    /**
+     * Tags a page of the listing. Read it before querying: a write
+     * committing meanwhile then only makes the tag stale, never wrong.
+     */
+    public String forPage(String after, int limit, String fields) {
+        return digest(epoch + "|" + catalogVersion.get() + "|" + after + "|" + limit + "|" + fields);
+    }
+
+    public String forSearch(BeerSearchDTO criteria, String after, int limit, String fields) {
+        return digest(epoch + "|" + catalogVersion.get() + "|" + criteria + "|" + after + "|" + limit
+                + "|" + fields);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        synchronized(beerTags) {
+            catalogVersion.incrementAndGet();
+            beerTags.remove(Beer.normalize(event.getBeer().getName()));
+        }
+    }
+
+    @EventListener
+    public void onStockSynced(StockSyncedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    private String digest(String content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
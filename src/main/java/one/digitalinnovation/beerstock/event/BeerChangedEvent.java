@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.event;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.AllArgsConstructor;
+
+/**
+ * Published by {@code BeerService} whenever a beer is written. For
+ * {@link Type#DELETED} the beer holds the last state before removal,
+ * otherwise the state right after the change. {@code version} is the
+ * entity version of that state, letting listeners drop events that arrive
+ * after a newer one for the same beer.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BeerChangedEvent {
+
+    public enum Type {
+        CREATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+
+    private final BeerDTO beer;
+
+    private final Long version;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.event;
+
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Published by {@code BeerService} for every applied stock change, next to
+ * the {@link BeerChangedEvent} of the beer it changed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockMovedEvent {
+
+    private final Long beerId;
+
+    private final int delta;
+
+    private final int resultingQuantity;
+
+    private final StockMovementReason reason;
+
+    private final Instant occurredAt;
+}
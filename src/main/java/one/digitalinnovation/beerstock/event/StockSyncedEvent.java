@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published by the stock strategies that keep the stock outside the table
+ * once they have written it back. Their mutations are announced by a
+ * {@link BeerChangedEvent} before the table reflects them, so anything
+ * derived from reading the table must be refreshed again at this point.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockSyncedEvent {
+
+    private final List<Long> beerIds;
+}
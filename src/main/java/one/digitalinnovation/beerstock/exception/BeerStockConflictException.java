@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BeerStockConflictException extends Exception {
+
+    public BeerStockConflictException(Long id) {
+        super("Stock of beer " + id + " is being changed concurrently, try again");
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerStockUnavailableException extends Exception {
+
+    public BeerStockUnavailableException() {
+        super("Not enough unreserved stock");
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class ReservationsUnsupportedException extends Exception {
+
+    public ReservationsUnsupportedException() {
+        super("Stock reservations need a stock strategy that writes through to the database");
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownBeerFieldException extends Exception {
+
+    public UnknownBeerFieldException(String field) {
+        super(field + " is not a beer field");
+    }
+}
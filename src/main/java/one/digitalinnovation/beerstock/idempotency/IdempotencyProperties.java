@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.idempotency")
+public class IdempotencyProperties {
+
+    private long maximumSize = 100_000;
+
+    private Duration expireAfterWrite = Duration.ofHours(24);
+}
@@ -0,0 +1,197 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Bounded, expiring record of requests sent with an {@code Idempotency-Key},
+ * so a retried request is answered with the first one's result instead of
+ * being applied again.
+ *
+ * <p>The first request to {@link #claim} a key runs the operation and then
+ * {@link #complete}s or {@link #release}s its {@link Claim}, which only
+ * ever acts on that request's hold of the key. Duplicates arriving meanwhile
+ * wait for that outcome: a completed result is replayed, while a failed
+ * request is not recorded, so one waiting duplicate claims the key and runs
+ * instead. In-flight requests are tracked apart from the bounded cache of
+ * completed results, so eviction can never strand a waiting duplicate.
+ * Keys are not scoped per client, so they must be unique, e.g. random
+ * UUIDs.</p>
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String CACHE_NAME = "idempotency";
+
+    private final Cache<String, Completed> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+    }
+
+    /**
+     * Claims {@code key} for a request identified by {@code fingerprint},
+     * waiting while another request holding the key is in flight.
+     *
+     * @return a claim replaying the recorded result when the key was already
+     * completed, or one without a result when the caller now holds the key
+     * and has to run the operation. A {@code null} key is never recorded and
+     * always gets a claim without a result.
+     * @throws IdempotencyKeyReusedException when the key was used for a
+     * request with another fingerprint
+     */
+    public Claim claim(String key, String fingerprint)
+            throws IdempotencyKeyReusedException {
+
+        if(key == null) {
+            return Claim.UNRECORDED;
+        }
+
+        while(true) {
+            Optional<BeerDTO> replayed = replay(key, fingerprint);
+
+            if(replayed.isPresent()) {
+                return new Claim(key, null, replayed.get());
+            }
+
+            InFlight claimed = new InFlight(fingerprint);
+            InFlight current = inFlight.putIfAbsent(key, claimed);
+
+            if(current == null) {
+                // The previous holder may have completed between both lookups
+                if(completed.getIfPresent(key) != null) {
+                    inFlight.remove(key, claimed);
+                    continue;
+                }
+
+                return new Claim(key, claimed, null);
+            }
+
+            if(!current.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+
+            try {
+                return new Claim(key, null, current.result.join());
+            } catch(CompletionException | CancellationException e) {
+                // The holder failed and recorded nothing, try to claim the key
+            }
+        }
+    }
+
+    /**
+     * Records the result of the request holding {@code claim} and hands it
+     * to the duplicates waiting for it.
+     */
+    public BeerDTO complete(Claim claim, BeerDTO result) {
+        InFlight request = claim.request;
+
+        if(request != null) {
+            // Recorded before the hold goes, so a new claim finds the result
+            completed.put(claim.key, new Completed(request.fingerprint, result));
+            inFlight.remove(claim.key, request);
+            request.result.complete(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gives up the key held by {@code claim} unless its request completed,
+     * letting a waiting duplicate or a later retry run it again. Called once
+     * the holding request has finished either way; a newer claim of the
+     * same key is left alone.
+     */
+    public void release(Claim claim) {
+        InFlight request = claim.request;
+
+        if(request != null && inFlight.remove(claim.key, request)) {
+            request.result.cancel(false);
+        }
+    }
+
+    private Optional<BeerDTO> replay(String key, String fingerprint)
+            throws IdempotencyKeyReusedException {
+
+        Completed request = completed.getIfPresent(key);
+
+        if(request == null) {
+            return Optional.empty();
+        }
+
+        if(!request.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+
+        return Optional.of(request.result);
+    }
+
+    /**
+     * Outcome of {@link #claim}: either a replayed result, or the caller's
+     * hold of the key, to be completed or released.
+     */
+    public static final class Claim {
+
+        private static final Claim UNRECORDED = new Claim(null, null, null);
+
+        private final String key;
+        private final InFlight request;
+        private final BeerDTO replayed;
+
+        private Claim(String key, InFlight request, BeerDTO replayed) {
+            this.key = key;
+            this.request = request;
+            this.replayed = replayed;
+        }
+
+        /** The recorded result, or empty when the caller has to run the operation. */
+        public Optional<BeerDTO> getReplayed() {
+            return Optional.ofNullable(replayed);
+        }
+    }
+
+    private static final class InFlight {
+
+        private final String fingerprint;
+        private final CompletableFuture<BeerDTO> result = new CompletableFuture<>();
+
+        InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class Completed {
+
+        private final String fingerprint;
+        private final BeerDTO result;
+
+        Completed(String fingerprint, BeerDTO result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+}
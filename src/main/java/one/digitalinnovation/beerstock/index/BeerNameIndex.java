@@ -0,0 +1,247 @@
+package one.digitalinnovation.beerstock.index;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.persistence.EntityManager;
+
+/**
+ * Prefix trie over the {@link Beer#normalize normalized} beer names, for
+ * autocompletion. A lookup walks the prefix and then collects names in
+ * alphabetical order until it has enough, so its cost depends on the
+ * prefix and the number of names asked for, not on the catalog size.
+ *
+ * <p>Built once the application is ready and maintained from committed
+ * {@link BeerChangedEvent}s, with the same version check and expiring
+ * tombstones as {@link LowStockIndex}. Lookups share a read lock; changes, which only
+ * come with creating and deleting beers, take the write lock.</p>
+ */
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerNameIndex {
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final IndexProperties indexProperties;
+
+    private final Node root = new Node();
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @return up to {@code limit} beer names starting with {@code prefix},
+     * ignoring case, in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = Beer.normalize(prefix);
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+
+            for(int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+
+            if(node != null) {
+                collect(node, limit, names);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return names;
+    }
+
+    /**
+     * @return how many names are indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return root.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try(Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                index(beer.getId(), beer.getName(), beer.getVersion(), false);
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        index(event.getBeer().getId(), event.getBeer().getName(), event.getVersion(),
+                event.getType() == BeerChangedEvent.Type.DELETED);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.index.purge-interval-ms:60000}")
+    public void purgeTombstones() {
+        long oldest = System.nanoTime() - indexProperties.getTombstoneTtl().toNanos();
+
+        lock.writeLock().lock();
+        try {
+            byId.values().removeIf(entry -> entry.deleted && entry.indexedAt - oldest <= 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return how many beers are tracked, tombstones included
+     */
+    int tracked() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Long id, String name, Long version, boolean deleted) {
+        Entry update = new Entry(name, version == null ? 0L : version, deleted);
+
+        lock.writeLock().lock();
+        try {
+            Entry current = byId.get(id);
+
+            if(current != null && !update.isNewerThan(current)) {
+                return;
+            }
+
+            byId.put(id, update);
+
+            // Stock changes keep the name, so most events stop here
+            if(current != null && current.deleted == update.deleted && current.name.equals(update.name)) {
+                return;
+            }
+
+            if(current != null && !current.deleted) {
+                remove(current.name);
+            }
+
+            if(!update.deleted) {
+                insert(update.name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(String name) {
+        String key = Beer.normalize(name);
+        Node node = root;
+        node.count++;
+
+        for(int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            node.count++;
+        }
+
+        node.name = name;
+    }
+
+    private void remove(String name) {
+        String key = Beer.normalize(name);
+        Node node = root;
+        node.count--;
+
+        for(int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+
+            if(--child.count == 0) {
+                node.children.remove(key.charAt(i));
+                return;
+            }
+
+            node = child;
+        }
+
+        node.name = null;
+    }
+
+    private static void collect(Node from, int limit, List<String> names) {
+        Deque<Iterator<Node>> path = new ArrayDeque<>();
+
+        if(from.name != null) {
+            names.add(from.name);
+        }
+
+        path.push(from.children.values().iterator());
+
+        while(names.size() < limit && !path.isEmpty()) {
+            Iterator<Node> children = path.peek();
+
+            if(!children.hasNext()) {
+                path.pop();
+                continue;
+            }
+
+            Node node = children.next();
+
+            if(node.name != null) {
+                names.add(node.name);
+            }
+
+            path.push(node.children.values().iterator());
+        }
+    }
+
+    private static final class Node {
+
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+
+        // Names ending in this node's subtree, so emptied branches can be cut
+        private int count;
+        private String name;
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final long version;
+        private final boolean deleted;
+        private final long indexedAt = System.nanoTime();
+
+        Entry(String name, long version, boolean deleted) {
+            this.name = name;
+            this.version = version;
+            this.deleted = deleted;
+        }
+
+        boolean isNewerThan(Entry other) {
+            return !other.deleted && (deleted || version > other.version);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.index;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.index")
+public class IndexProperties {
+
+    /**
+     * How long a deleted beer's tombstone is kept to turn away its late
+     * events. Must outlast the startup rebuild and any event delivery delay.
+     */
+    private Duration tombstoneTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,165 @@
+package one.digitalinnovation.beerstock.index;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import javax.persistence.EntityManager;
+
+/**
+ * Beers ordered by fill ratio ({@code quantity / max}), emptiest first, kept
+ * in memory so the restock dashboard never scans the table.
+ *
+ * <p>Built from the repository once the application is ready and then
+ * maintained from committed {@link BeerChangedEvent}s. An event older than
+ * the version already indexed for its beer is dropped, so events delivered
+ * out of order, or racing with the startup rebuild, cannot roll an entry
+ * back. Deleted beers leave a tombstone for the same reason, purged once
+ * it is older than {@link IndexProperties#getTombstoneTtl()}: ids are never
+ * reused, so only late events could still need it.</p>
+ */
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LowStockIndex {
+
+    private static final Comparator<Entry> EMPTIEST_FIRST = Comparator
+            .comparingDouble(Entry::getFillRatio)
+            .thenComparing(entry -> entry.getBeer().getId());
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final IndexProperties indexProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final NavigableSet<Entry> byFillRatio = new ConcurrentSkipListSet<>(EMPTIEST_FIRST);
+    private final ConcurrentMap<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    /**
+     * @return up to {@code limit} beers with the lowest fill ratio, emptiest first
+     */
+    public List<BeerDTO> lowest(int limit) {
+        List<BeerDTO> beers = new ArrayList<>(Math.min(limit, byId.size()));
+        Iterator<Entry> iterator = byFillRatio.iterator();
+
+        while(beers.size() < limit && iterator.hasNext()) {
+            beers.add(iterator.next().getBeer());
+        }
+
+        return beers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try(Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                index(beerMapper.toDTO(beer), beer.getVersion(), false);
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        index(event.getBeer(), event.getVersion(),
+                event.getType() == BeerChangedEvent.Type.DELETED);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.index.purge-interval-ms:60000}")
+    public void purgeTombstones() {
+        long oldest = System.nanoTime() - indexProperties.getTombstoneTtl().toNanos();
+
+        // Nothing replaces a tombstone, so removing it cannot lose an update
+        byId.forEach((id, entry) -> {
+            if(entry.isDeleted() && entry.getIndexedAt() - oldest <= 0) {
+                byId.remove(id, entry);
+            }
+        });
+    }
+
+    /**
+     * @return how many beers are tracked, tombstones included
+     */
+    int tracked() {
+        return byId.size();
+    }
+
+    private void index(BeerDTO beer, Long version, boolean deleted) {
+        Entry update = new Entry(beer, version == null ? 0L : version, deleted);
+
+        byId.compute(beer.getId(), (id, current) -> {
+            if(current != null && !update.isNewerThan(current)) {
+                return current;
+            }
+
+            if(current != null && !current.isDeleted()) {
+                byFillRatio.remove(current);
+            }
+
+            if(!update.isDeleted()) {
+                byFillRatio.add(update);
+            }
+
+            return update;
+        });
+    }
+
+    private static final class Entry {
+
+        private final BeerDTO beer;
+        private final long version;
+        private final boolean deleted;
+        private final double fillRatio;
+        private final long indexedAt = System.nanoTime();
+
+        Entry(BeerDTO beer, long version, boolean deleted) {
+            this.beer = beer;
+            this.version = version;
+            this.deleted = deleted;
+            this.fillRatio = beer.getMax() > 0
+                    ? (double) beer.getQuantity() / beer.getMax()
+                    : 1.0;
+        }
+
+        BeerDTO getBeer() {
+            return beer;
+        }
+
+        boolean isDeleted() {
+            return deleted;
+        }
+
+        double getFillRatio() {
+            return fillRatio;
+        }
+
+        long getIndexedAt() {
+            return indexedAt;
+        }
+
+        boolean isNewerThan(Entry other) {
+            return !other.deleted && (deleted || version > other.version);
+        }
+    }
+}
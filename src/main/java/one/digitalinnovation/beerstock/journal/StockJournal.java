@@ -0,0 +1,158 @@
+package one.digitalinnovation.beerstock.journal;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size, memory-mapped journal of stock states.
+ *
+ * <p>Each record stores the state a mutation produced (not its delta), so
+ * replaying a record twice is harmless:</p>
+ *
+ * <pre>
+ * sequence:long | beerId:long | quantity:int | version:long | crc32:int
+ * </pre>
+ *
+ * <p>Records are written in place into the mapping; once {@code append}
+ * returns, the record survives a crash of the process because it already
+ * sits in the page cache. Surviving a power loss additionally needs
+ * {@code forceEachAppend}.</p>
+ *
+ * <p>The journal is reused from the start after every checkpoint, so a
+ * reader only accepts a run of records with valid checksums and
+ * consecutive sequence numbers: a torn record, or a stale record left over
+ * from the previous generation, ends the run.</p>
+ */
+public class StockJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 32;
+
+    private static final int CHECKSUMMED_BYTES = RECORD_SIZE - Integer.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean forceEachAppend;
+
+    private long lastSequence;
+
+    public StockJournal(Path file, int capacity, boolean forceEachAppend) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        this.forceEachAppend = forceEachAppend;
+    }
+
+    /**
+     * Reads the records written after {@code afterSequence} and positions
+     * the journal to append after the last valid one. Must be called once,
+     * before the first {@link #append}.
+     */
+    public synchronized List<StockRecord> recover(long afterSequence) {
+        List<StockRecord> records = new ArrayList<>();
+        long previous = -1;
+        int position = 0;
+
+        while(position + RECORD_SIZE <= buffer.capacity()) {
+            StockRecord record = read(position);
+
+            if(record == null || (previous != -1 && record.getSequence() != previous + 1)) {
+                break;
+            }
+
+            if(record.getSequence() > afterSequence) {
+                records.add(record);
+            }
+
+            previous = record.getSequence();
+            position += RECORD_SIZE;
+        }
+
+        buffer.position(position);
+        lastSequence = Math.max(previous, afterSequence);
+
+        return records;
+    }
+
+    /**
+     * @return the sequence number given to the record
+     * @throws IllegalStateException when the journal is full; callers
+     * check {@link #hasRoom()} and checkpoint first
+     */
+    public synchronized long append(long beerId, int quantity, long version) {
+        if(!hasRoom()) {
+            throw new IllegalStateException("Stock journal is full");
+        }
+
+        long sequence = lastSequence + 1;
+        int position = buffer.position();
+
+        buffer.putLong(sequence);
+        buffer.putLong(beerId);
+        buffer.putInt(quantity);
+        buffer.putLong(version);
+        buffer.putInt(checksum(position));
+
+        if(forceEachAppend) {
+            buffer.force();
+        }
+
+        lastSequence = sequence;
+
+        return sequence;
+    }
+
+    public synchronized boolean hasRoom() {
+        return buffer.remaining() >= RECORD_SIZE;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Starts a new generation at the beginning of the file. Only call once
+     * a snapshot covering {@link #getLastSequence()} is durable.
+     */
+    public synchronized void reset() {
+        buffer.clear();
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private StockRecord read(int position) {
+        if(buffer.getInt(position + CHECKSUMMED_BYTES) != checksum(position)) {
+            return null;
+        }
+
+        return new StockRecord(
+                buffer.getLong(position),
+                buffer.getLong(position + 8),
+                buffer.getInt(position + 16),
+                buffer.getLong(position + 20));
+    }
+
+    private int checksum(int position) {
+        CRC32 crc = new CRC32();
+
+        for(int i = position; i < position + CHECKSUMMED_BYTES; i++) {
+            crc.update(buffer.get(i));
+        }
+
+        return (int) crc.getValue();
+    }
+}
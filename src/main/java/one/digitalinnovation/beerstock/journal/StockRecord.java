@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.journal;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.AllArgsConstructor;
+
+/**
+ * Stock state of one beer as of a journal sequence number.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockRecord {
+
+    private final long sequence;
+
+    private final long beerId;
+
+    private final int quantity;
+
+    private final long version;
+}
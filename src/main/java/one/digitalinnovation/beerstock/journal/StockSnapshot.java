@@ -0,0 +1,100 @@
+package one.digitalinnovation.beerstock.journal;
+
+import lombok.Getter;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.io.IOException;
+import java.io.EOFException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stock of every beer as of a journal sequence number. Written to a
+ * temporary file, synced and then atomically renamed over the previous
+ * snapshot, so a crash leaves either the old or the new one in place.
+ */
+@Getter
+@AllArgsConstructor
+public class StockSnapshot {
+
+    private static final int MAGIC = 0x42534E50;
+
+    private final long sequence;
+
+    private final List<StockRecord> stocks;
+
+    public void writeTo(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+
+        try(FileOutputStream fileOutput = new FileOutputStream(temporary.toFile());
+            DataOutputStream output = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(fileOutput), crc))) {
+
+            output.writeInt(MAGIC);
+            output.writeLong(sequence);
+            output.writeInt(stocks.size());
+
+            for(StockRecord stock : stocks) {
+                output.writeLong(stock.getBeerId());
+                output.writeInt(stock.getQuantity());
+                output.writeLong(stock.getVersion());
+            }
+
+            output.flush();
+            new DataOutputStream(fileOutput).writeLong(crc.getValue());
+            fileOutput.getFD().sync();
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the snapshot, or empty when there is none yet
+     * @throws IOException when the file exists but is corrupt
+     */
+    public static Optional<StockSnapshot> readFrom(Path file) throws IOException {
+        if(!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        CRC32 crc = new CRC32();
+
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            DataInputStream checked = new DataInputStream(new CheckedInputStream(input, crc));
+
+            if(checked.readInt() != MAGIC) {
+                throw new IOException("Not a stock snapshot: " + file);
+            }
+
+            long sequence = checked.readLong();
+            int count = checked.readInt();
+            List<StockRecord> stocks = new ArrayList<>(count);
+
+            for(int i = 0; i < count; i++) {
+                stocks.add(new StockRecord(sequence, checked.readLong(), checked.readInt(), checked.readLong()));
+            }
+
+            if(input.readLong() != crc.getValue()) {
+                throw new IOException("Corrupt stock snapshot: " + file);
+            }
+
+            return Optional.of(new StockSnapshot(sequence, stocks));
+
+        } catch(EOFException e) {
+            throw new IOException("Truncated stock snapshot: " + file, e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import one.digitalinnovation.beerstock.dto.BeerDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -11,6 +12,21 @@ public interface BeerMapper {
 
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reserved", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
     Beer toModel(BeerDTO beerDTO);
+
+    /**
+     * A beer to insert. The id is left for the sequence: with a version
+     * column, saving an entity that has an id but no version fails as a
+     * detached entity instead of inserting it.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reserved", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
+    Beer toNewModel(BeerDTO beerDTO);
+
     BeerDTO toDTO(Beer beer);
 }
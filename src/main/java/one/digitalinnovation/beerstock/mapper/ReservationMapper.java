@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.mapper;
+
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.entity.StockReservation;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface ReservationMapper {
+
+    ReservationMapper INSTANCE = Mappers.getMapper(ReservationMapper.class);
+
+    ReservationDTO toDTO(StockReservation stockReservation);
+}
@@ -0,0 +1,130 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+
+import lombok.AllArgsConstructor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public {@code BeerService} operation, tagged by method and
+ * outcome, and counts stock-limit rejections, whether they surface as an
+ * exception or as an item of a batch adjustment.
+ */
+@Aspect
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerServiceMetricsAspect {
+
+    public static final String SERVICE_TIMER = "beerstock.service";
+    public static final String REJECTIONS_COUNTER = "beerstock.stock.rejections";
+
+    static final String SUCCESS = "success";
+    static final String NOT_FOUND = "not-found";
+    static final String EXCEEDED = "exceeded";
+    static final String NEGATIVE = "negative";
+    static final String ALREADY_REGISTERED = "already-registered";
+    static final String CONFLICT = "conflict";
+    static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    /** Timers by method and outcome, so the registry is not searched on every call. */
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * one.digitalinnovation.beerstock.service.BeerService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = SUCCESS;
+
+        try {
+            Object result = joinPoint.proceed();
+            countBatchRejections(result);
+            return result;
+
+        } catch(Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+
+        } finally {
+            sample.stop(timerOf(method, outcome));
+        }
+    }
+
+    private Timer timerOf(String method, String outcome) {
+        return timers.computeIfAbsent(method + ':' + outcome, key -> Timer.builder(SERVICE_TIMER)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private String outcomeOf(Throwable e) {
+        if(e instanceof BeerNotFoundException) {
+            return NOT_FOUND;
+        }
+
+        if(e instanceof BeerStockExceededException) {
+            countRejection(EXCEEDED);
+            return EXCEEDED;
+        }
+
+        if(e instanceof BeerStockNegativeException) {
+            countRejection(NEGATIVE);
+            return NEGATIVE;
+        }
+
+        if(e instanceof BeerAlreadyRegisteredException) {
+            return ALREADY_REGISTERED;
+        }
+
+        if(e instanceof BeerStockConflictException) {
+            return CONFLICT;
+        }
+
+        return ERROR;
+    }
+
+    private void countBatchRejections(Object result) {
+        if(!(result instanceof List)) {
+            return;
+        }
+
+        for(Object item : (List<?>) result) {
+            if(!(item instanceof StockAdjustmentResultDTO)) {
+                return;
+            }
+
+            StockAdjustmentStatus status = ((StockAdjustmentResultDTO) item).getStatus();
+
+            if(status == StockAdjustmentStatus.EXCEEDED) {
+                countRejection(EXCEEDED);
+            } else if(status == StockAdjustmentStatus.NEGATIVE) {
+                countRejection(NEGATIVE);
+            }
+        }
+    }
+
+    private void countRejection(String reason) {
+        meterRegistry.counter(REJECTIONS_COUNTER, "reason", reason).increment();
+    }
+}
@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.stats.BeerStockStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Total units in stock per {@link BeerType}. The gauges read the in-memory
+ * {@link BeerStockStats} counters, so scraping them never queries the
+ * database.
+ */
+@Component
+public class StockLevelMetrics {
+
+    public static final String STOCK_GAUGE = "beerstock.stock.quantity";
+
+    @Autowired
+    public StockLevelMetrics(BeerStockStats beerStockStats, MeterRegistry meterRegistry) {
+        for(BeerType type : BeerType.values()) {
+            Gauge.builder(STOCK_GAUGE, beerStockStats, stats -> stats.quantityOf(type))
+                    .tag("type", type.name())
+                    .baseUnit("units")
+                    .register(meterRegistry);
+        }
+    }
+}
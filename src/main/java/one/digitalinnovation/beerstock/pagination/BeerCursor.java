@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstock.pagination;
+
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+
+import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Opaque keyset cursor over {@code Beer.id}. Clients only ever echo back
+ * the value returned in the previous page, so the encoding can change
+ * without breaking them.
+ */
+public final class BeerCursor {
+
+    private static final String PREFIX = "id:";
+
+    private BeerCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static long decode(String cursor) throws InvalidCursorException {
+        if(cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            if(!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException(cursor);
+            }
+
+            return Long.parseLong(raw.substring(PREFIX.length()));
+
+        } catch(IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
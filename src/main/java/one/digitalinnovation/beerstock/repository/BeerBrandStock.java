@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.repository;
+
+public interface BeerBrandStock {
+
+    String getBrand();
+
+    Long getBeers();
+
+    Long getQuantity();
+
+    Long getCapacity();
+}
@@ -2,12 +2,118 @@ package one.digitalinnovation.beerstock.repository;
 
 import one.digitalinnovation.beerstock.entity.Beer;
 
+import java.util.Set;
+import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import javax.persistence.LockModeType;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface BeerRepository extends JpaRepository<Beer, Long> {
-    Optional<Beer> findByName(String name);
+
+    int STREAM_FETCH_SIZE = 500;
+
+    Optional<Beer> findByNormalizedName(String normalizedName);
+
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT b.type AS type, COUNT(b) AS beers, SUM(b.quantity) AS quantity, SUM(b.max) AS capacity " +
+            "FROM Beer b GROUP BY b.type")
+    List<BeerTypeStock> sumStockByType();
+
+    @Query("SELECT b.brand AS brand, COUNT(b) AS beers, SUM(b.quantity) AS quantity, SUM(b.max) AS capacity " +
+            "FROM Beer b GROUP BY b.brand")
+    List<BeerBrandStock> sumStockByBrand();
+
+    @Query("SELECT b.normalizedName FROM Beer b WHERE b.normalizedName IN :normalizedNames")
+    Set<String> findNormalizedNamesIn(@Param("normalizedNames") Collection<String> normalizedNames);
+
+    /**
+     * Streams every beer ordered by id. Must be consumed inside a transaction
+     * and closed afterwards; rows are fetched from the driver in batches of
+     * {@link #STREAM_FETCH_SIZE} and loaded read-only, so no dirty-checking
+     * snapshot is kept for them.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Beer b ORDER BY b.id")
+    Stream<Beer> streamAll();
+
+    /**
+     * Loads the beers and locks their rows until the transaction ends. Rows
+     * are locked in id order, so two callers never wait on each other's rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beer b WHERE b.id IN :ids ORDER BY b.id")
+    List<Beer> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds {@code quantity} to the stock in a single conditional statement.
+     *
+     * @return 1 when the stock was incremented, 0 when the beer does not
+     * exist or the result would exceed its max capacity
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity + :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.quantity + :quantity <= b.max")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Subtracts {@code quantity} from the stock in a single conditional statement.
+     *
+     * @return 1 when the stock was decremented, 0 when the beer does not
+     * exist or the result would dip into the reserved units
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity - :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.quantity - :quantity >= b.reserved")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Holds {@code quantity} unreserved units in a single conditional statement.
+     *
+     * @return 1 when the units were reserved, 0 when the beer does not exist
+     * or fewer units are unreserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.reserved = b.reserved + :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.quantity - b.reserved >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Returns {@code quantity} reserved units to the available stock.
+     *
+     * @return 1 when released, 0 when the beer no longer exists
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.reserved = b.reserved - :quantity, b.version = b.version + 1 " +
+            "WHERE b.id = :id")
+    int releaseReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Takes {@code quantity} reserved units out of the stock. They were held
+     * for the caller, so no limit can be crossed.
+     *
+     * @return 1 when the stock was decremented, 0 when the beer no longer exists
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Beer b SET b.quantity = b.quantity - :quantity, b.reserved = b.reserved - :quantity, " +
+            "b.version = b.version + 1 WHERE b.id = :id")
+    int confirmReservedStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,115 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+import javax.persistence.Tuple;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+
+/**
+ * Builds the search query from whichever filters are set, so a type or
+ * brand filter hits its {@code (column, id)} index on {@link Beer} instead
+ * of a catch-all statement with {@code :param IS NULL OR ...} clauses that
+ * the database cannot plan well.
+ *
+ * <p>Pages are keyset-based and no count query is issued. The quantity
+ * range and {@code lowStock} filters have no index, since none could return
+ * rows in id order; they are checked on the rows the scan visits, so a page
+ * costs its own size only as long as matches are dense. Sparse matches
+ * scan far into the catalog; {@link Beer}s to restock are better found
+ * through the low-stock index.</p>
+ */
+@Repository
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerSearchRepository {
+
+    private final EntityManager entityManager;
+
+    public List<Beer> search(BeerSearchDTO criteria, long afterId, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beer> query = builder.createQuery(Beer.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        query.select(beer)
+                .where(predicates(builder, beer, criteria, afterId))
+                .orderBy(builder.asc(beer.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Same page as {@link #search}, but only the columns of {@code fields}
+     * are selected, each aliased by its property name. {@code id} is always
+     * selected since the next cursor is built from it. Tuples are not
+     * managed, so the rows are neither kept in the persistence context nor
+     * dirty-checked on flush.
+     */
+    public List<Tuple> search(BeerSearchDTO criteria, long afterId, int limit, Set<BeerField> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Beer> beer = query.from(Beer.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(beer.get("id").alias(BeerField.ID.getProperty()));
+
+        for(BeerField field : fields) {
+            if(field != BeerField.ID) {
+                selections.add(beer.get(field.getProperty()).alias(field.getProperty()));
+            }
+        }
+
+        query.multiselect(selections)
+                .where(predicates(builder, beer, criteria, afterId))
+                .orderBy(builder.asc(beer.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder builder, Root<Beer> beer,
+                                   BeerSearchDTO criteria, long afterId) {
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.greaterThan(beer.get("id"), afterId));
+
+        if(criteria.getType() != null) {
+            predicates.add(builder.equal(beer.get("type"), criteria.getType()));
+        }
+
+        if(criteria.getBrand() != null) {
+            predicates.add(builder.equal(beer.get("brand"), criteria.getBrand()));
+        }
+
+        if(criteria.getMinQuantity() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(beer.get("quantity"), criteria.getMinQuantity()));
+        }
+
+        if(criteria.getMaxQuantity() != null) {
+            predicates.add(builder.lessThanOrEqualTo(beer.get("quantity"), criteria.getMaxQuantity()));
+        }
+
+        if(criteria.getLowStock() != null) {
+            predicates.add(builder.lt(beer.get("quantity"),
+                    builder.prod(beer.<Integer>get("max"), criteria.getLowStock())));
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,113 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.TreeSet;
+import java.util.Collections;
+import java.sql.Statement;
+import java.util.stream.Collectors;
+
+/**
+ * Applies stock adjustments as one JDBC batch of conditional updates, so a
+ * whole delivery costs a single round trip instead of one per beer.
+ *
+ * <p>The adjusted rows are locked in id order first, so two overlapping
+ * deliveries cannot deadlock, and their stock is read on the way. Drivers
+ * may answer a batched update with {@link Statement#SUCCESS_NO_INFO}
+ * instead of a row count; those outcomes are worked out by replaying the
+ * adjustments against that stock, which nothing else can change while it
+ * is locked.</p>
+ */
+@Repository
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerStockBatchRepository {
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, quantity, reserved, max FROM beer WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE beer SET quantity = quantity + ?, version = version + 1 " +
+            "WHERE id = ? AND quantity + ? BETWEEN reserved AND max";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the affected row count of each adjustment, in order: 1 when it
+     * was applied, 0 when the beer does not exist or the stock would leave
+     * the {@code [reserved, max]} range
+     */
+    public int[] adjustStock(List<StockAdjustmentDTO> adjustments) {
+        if(adjustments.isEmpty()) {
+            return new int[0];
+        }
+
+        Map<Long, Stock> stock = lockStock(adjustments);
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, adjustments, adjustments.size(),
+                (statement, adjustment) -> {
+                    statement.setInt(1, adjustment.getDelta());
+                    statement.setLong(2, adjustment.getId());
+                    statement.setInt(3, adjustment.getDelta());
+                })[0];
+
+        for(int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            Stock beer = stock.get(adjustment.getId());
+
+            if(updatedRows[i] == Statement.SUCCESS_NO_INFO) {
+                updatedRows[i] = beer != null && beer.fits(adjustment.getDelta()) ? 1 : 0;
+            }
+
+            if(updatedRows[i] > 0) {
+                beer.quantity += adjustment.getDelta();
+            }
+        }
+
+        return updatedRows;
+    }
+
+    /**
+     * @return the stock of each existing beer, by id
+     */
+    private Map<Long, Stock> lockStock(List<StockAdjustmentDTO> adjustments) {
+        Object[] ids = adjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .toArray();
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        Map<Long, Stock> stock = new HashMap<>();
+
+        jdbcTemplate.query(String.format(LOCK_STOCK_SQL, placeholders), rs -> {
+            stock.put(rs.getLong("id"), new Stock(rs.getInt("quantity"), rs.getInt("reserved"), rs.getInt("max")));
+        }, ids);
+
+        return stock;
+    }
+
+    private static final class Stock {
+
+        private int quantity;
+        private final int reserved;
+        private final int max;
+
+        Stock(int quantity, int reserved, int max) {
+            this.quantity = quantity;
+            this.reserved = reserved;
+            this.max = max;
+        }
+
+        boolean fits(int delta) {
+            return quantity + delta >= reserved && quantity + delta <= max;
+        }
+    }
+}
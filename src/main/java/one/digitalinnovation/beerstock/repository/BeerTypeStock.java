@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+public interface BeerTypeStock {
+
+    BeerType getType();
+
+    Long getBeers();
+
+    Long getQuantity();
+
+    Long getCapacity();
+}
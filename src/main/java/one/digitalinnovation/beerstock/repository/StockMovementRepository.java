@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.StockMovement;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByBeerIdAndIdGreaterThanOrderByIdAsc(Long beerId, Long id, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.StockReservation;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Deletes the reservation, claiming it for the caller.
+     *
+     * @return 1 when this call deleted it, 0 when it was already confirmed,
+     * released or expired
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int claim(@Param("id") Long id);
+}
@@ -0,0 +1,57 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.StockSlot;
+
+import java.util.List;
+import java.util.Collection;
+import javax.persistence.LockModeType;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@Repository
+public interface StockSlotRepository extends JpaRepository<StockSlot, Long> {
+
+    /**
+     * Sums the slots of each beer in one statement, so quantity and changes
+     * describe the same committed state. Beers without slots are left out.
+     */
+    @Query("SELECT b.id AS beerId, b.reserved AS reserved, SUM(s.quantity) AS quantity, " +
+            "SUM(s.changes) AS changes FROM StockSlot s JOIN s.beer b WHERE b.id IN :beerIds " +
+            "GROUP BY b.id, b.reserved")
+    List<StockSlotTotals> sumByBeerIdIn(@Param("beerIds") Collection<Long> beerIds);
+
+    /**
+     * Loads the slots of a beer and locks their rows until the transaction
+     * ends, waiting for the mutations in flight on any of them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockSlot s WHERE s.beer.id = :beerId ORDER BY s.slot")
+    List<StockSlot> findByBeerIdForUpdate(@Param("beerId") Long beerId);
+
+    /**
+     * Adds {@code quantity} to one slot in a single conditional statement.
+     *
+     * @return 1 when the slot was incremented, 0 when it does not exist or
+     * the result would exceed its capacity
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockSlot s SET s.quantity = s.quantity + :quantity, s.changes = s.changes + 1 " +
+            "WHERE s.beer.id = :beerId AND s.slot = :slot AND s.quantity + :quantity <= s.capacity")
+    int incrementSlot(@Param("beerId") Long beerId, @Param("slot") int slot, @Param("quantity") int quantity);
+
+    /**
+     * Subtracts {@code quantity} from one slot in a single conditional statement.
+     *
+     * @return 1 when the slot was decremented, 0 when it does not exist or
+     * holds fewer units
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockSlot s SET s.quantity = s.quantity - :quantity, s.changes = s.changes + 1 " +
+            "WHERE s.beer.id = :beerId AND s.slot = :slot AND s.quantity - :quantity >= 0")
+    int decrementSlot(@Param("beerId") Long beerId, @Param("slot") int slot, @Param("quantity") int quantity);
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.repository;
+
+public interface StockSlotTotals {
+
+    Long getBeerId();
+
+    Integer getReserved();
+
+    Long getQuantity();
+
+    Long getChanges();
+}
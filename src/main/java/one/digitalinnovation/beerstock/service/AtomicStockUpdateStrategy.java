@@ -0,0 +1,58 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Default strategy: one conditional UPDATE per mutation. The database
+ * serializes concurrent writers on the row, so no update is lost and no
+ * retry is needed.
+ */
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "atomic", matchIfMissing = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class AtomicStockUpdateStrategy implements StockUpdateStrategy {
+
+    private final BeerRepository beerRepository;
+
+    @Override
+    @Transactional
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+
+        if(beerRepository.incrementStock(id, quantity) == 0) {
+            verifyIfExists(id);
+            throw new BeerStockExceededException();
+        }
+
+        return verifyIfExists(id);
+    }
+
+    @Override
+    @Transactional
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException {
+
+        if(beerRepository.decrementStock(id, quantity) == 0) {
+            verifyIfExists(id);
+            throw new BeerStockNegativeException();
+        }
+
+        return verifyIfExists(id);
+    }
+
+    private Beer verifyIfExists(Long id) throws BeerNotFoundException {
+        return beerRepository.findById(id)
+                .orElseThrow(BeerNotFoundException::new);
+    }
+}
@@ -0,0 +1,67 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import lombok.AllArgsConstructor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.persistence.EntityManager;
+
+/**
+ * Writes the whole catalog as newline-delimited JSON, one {@link BeerDTO}
+ * per line, without holding more than one fetch batch of entities in memory.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerExportService {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream outputStream) throws IOException {
+        ObjectWriter beerWriter = objectMapper.writerFor(BeerDTO.class);
+
+        try(Stream<Beer> beers = beerRepository.streamAll();
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Beer> iterator = beers.iterator();
+            int written = 0;
+
+            while(iterator.hasNext()) {
+                Beer beer = iterator.next();
+
+                beerWriter.writeValue(generator, beerMapper.toDTO(beer));
+                generator.writeRaw('\n');
+                entityManager.detach(beer);
+
+                if(++written % FLUSH_INTERVAL == 1) {
+                    generator.flush();
+                }
+            }
+
+            generator.flush();
+        }
+    }
+}
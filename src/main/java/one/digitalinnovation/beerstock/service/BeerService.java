@@ -1,103 +1,644 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.StockReservation;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.SparseBeerDTO;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.index.LowStockIndex;
+import one.digitalinnovation.beerstock.index.BeerNameIndex;
+import one.digitalinnovation.beerstock.idempotency.IdempotencyStore;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.BeerCreationResultDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.enums.BeerCreationStatus;
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.pagination.BeerCursor;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.mapper.ReservationMapper;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockMovedEvent;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerSearchRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockBatchRepository;
+import one.digitalinnovation.beerstock.repository.StockReservationRepository;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+import one.digitalinnovation.beerstock.exception.BeerStockUnavailableException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
 
 import lombok.AllArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.time.Instant;
 import java.util.stream.Collectors;
+import javax.persistence.Tuple;
+import javax.persistence.EntityManager;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_AUTOCOMPLETE_SIZE = 10;
+    public static final int MAX_AUTOCOMPLETE_SIZE = 100;
+
+    private static final int NAME_LOOKUP_CHUNK_SIZE = 1000;
+
     private final BeerRepository beerRepository;
+    private final BeerStockBatchRepository beerStockBatchRepository;
+    private final BeerSearchRepository beerSearchRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockUpdateStrategy stockUpdateStrategy;
+    private final BeerCache beerCache;
+    private final LowStockIndex lowStockIndex;
+    private final BeerNameIndex beerNameIndex;
+    private final IdempotencyStore idempotencyStore;
+    private final ReservationTimer reservationTimer;
+    private final ReservationProperties reservationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final ReservationMapper reservationMapper = ReservationMapper.INSTANCE;
 
     public BeerDTO createBeer(BeerDTO beerDTO)
             throws BeerAlreadyRegisteredException {
 
         verifyIfIsRegistered(beerDTO.getName());
 
-        Beer beerToCreate = beerMapper.toModel(beerDTO);
+        Beer beerToCreate = beerMapper.toNewModel(beerDTO);
         Beer savedBeer = beerRepository.save(beerToCreate);
 
-        return beerMapper.toDTO(savedBeer);
+        return publish(BeerChangedEvent.Type.CREATED, savedBeer);
+    }
+
+    /**
+     * Creates every beer whose name, ignoring case, is not registered yet and
+     * reports the others as conflicts instead of failing the whole request.
+     * Existing names are looked up with one IN query per chunk, and inserts
+     * are flushed in JDBC batches of {@link Beer#ID_ALLOCATION_SIZE}.
+     */
+    @Transactional
+    public List<BeerCreationResultDTO> createBeers(List<BeerDTO> beersDTO) {
+        Set<String> registeredNames = findRegisteredNames(beersDTO);
+        BeerCreationResultDTO[] results = new BeerCreationResultDTO[beersDTO.size()];
+        Map<Integer, Beer> pendingBeers = new LinkedHashMap<>();
+
+        for(int i = 0; i < beersDTO.size(); i++) {
+            BeerDTO beerDTO = beersDTO.get(i);
+
+            if(!registeredNames.add(Beer.normalize(beerDTO.getName()))) {
+                results[i] = BeerCreationResultDTO.builder()
+                        .name(beerDTO.getName())
+                        .status(BeerCreationStatus.ALREADY_REGISTERED)
+                        .message(new BeerAlreadyRegisteredException(beerDTO.getName()).getMessage())
+                        .build();
+                continue;
+            }
+
+            Beer beerToCreate = beerMapper.toNewModel(beerDTO);
+            pendingBeers.put(i, beerToCreate);
+
+            if(pendingBeers.size() == Beer.ID_ALLOCATION_SIZE) {
+                insertBatch(pendingBeers, results);
+            }
+        }
+
+        insertBatch(pendingBeers, results);
+
+        return Arrays.asList(results);
     }
 
+    /**
+     * Finds a beer by name, ignoring case.
+     */
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
+        BeerDTO foundBeer = beerCache.get(Beer.normalize(name), this::loadByName);
 
-        return beerMapper.toDTO(foundBeer);
+        if(foundBeer == null) {
+            throw new BeerNotFoundException(name);
+        }
+
+        return foundBeer;
     }
 
-    public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
-                .stream()
-                .map(beerMapper::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Pages through the catalog. When {@code fields} names some of the
+     * beer's fields, only those columns are read and set on the returned
+     * beers; otherwise the beers are complete.
+     */
+    public BeerPageDTO listAll(String after, int limit, String fields)
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        if(!BeerField.parse(fields).isEmpty()) {
+            return search(new BeerSearchDTO(), after, limit, fields);
+        }
+
+        long afterId = BeerCursor.decode(after);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<Beer> beers = beerRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, pageSize + 1));
+
+        return toPage(beers, pageSize);
+    }
+
+    public BeerPageDTO search(BeerSearchDTO criteria, String after, int limit, String fields)
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        Set<BeerField> requestedFields = BeerField.parse(fields);
+        long afterId = BeerCursor.decode(after);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        if(!requestedFields.isEmpty()) {
+            List<Tuple> rows = beerSearchRepository.search(criteria, afterId, pageSize + 1, requestedFields);
+            return toPage(rows, pageSize, requestedFields);
+        }
+
+        List<Beer> beers = beerSearchRepository.search(criteria, afterId, pageSize + 1);
+
+        return toPage(beers, pageSize);
+    }
+
+    public List<BeerDTO> findLowStock(int limit) {
+        return lowStockIndex.lowest(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @return names of the beers starting with {@code prefix}, ignoring case,
+     * in alphabetical order
+     */
+    public List<String> autocomplete(String prefix, int limit) {
+        return beerNameIndex.complete(prefix, Math.min(Math.max(limit, 1), MAX_AUTOCOMPLETE_SIZE));
     }
 
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
+        Beer beerToDelete = verifyIfExists(id);
         beerRepository.deleteById(id);
+
+        publish(BeerChangedEvent.Type.DELETED, beerToDelete);
     }
 
     public BeerDTO increment(Long id, int quantity)
-            throws BeerNotFoundException, BeerStockExceededException {
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
 
-        Beer beerToIncrementStock = verifyIfExists(id);
+        Beer beerIncremented = stockUpdateStrategy.increment(id, quantity);
+        publishMovement(beerIncremented.getId(), quantity, beerIncremented.getQuantity(),
+                StockMovementReason.INCREMENT);
 
-        int totalQuantity = beerToIncrementStock.getQuantity() + quantity;
+        return publish(BeerChangedEvent.Type.STOCK_CHANGED, beerIncremented);
+    }
 
-        if(totalQuantity > beerToIncrementStock.getMax()) {
-            throw new BeerStockExceededException();
-        }
+    /**
+     * Increments the stock at most once per {@code idempotencyKey}: a retry
+     * with the same key gets the recorded result without touching the stock.
+     */
+    public BeerDTO increment(Long id, int quantity, String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException,
+            IdempotencyKeyReusedException {
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(idempotencyKey, "increment:" + id + ":" + quantity);
 
-        beerToIncrementStock.setQuantity(totalQuantity);
-        Beer beerIncremented = beerRepository.save(beerToIncrementStock);
+        if(claim.getReplayed().isPresent()) {
+            return claim.getReplayed().get();
+        }
 
-        return beerMapper.toDTO(beerIncremented);
+        try {
+            return idempotencyStore.complete(claim, increment(id, quantity));
+        } finally {
+            idempotencyStore.release(claim);
+        }
     }
 
     public BeerDTO decrement(Long id, int quantity)
-            throws BeerNotFoundException, BeerStockNegativeException {
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException {
+
+        Beer beerDecremented = stockUpdateStrategy.decrement(id, quantity);
+        publishMovement(beerDecremented.getId(), -quantity, beerDecremented.getQuantity(),
+                StockMovementReason.DECREMENT);
+
+        return publish(BeerChangedEvent.Type.STOCK_CHANGED, beerDecremented);
+    }
 
-        Beer beerToDecrement = verifyIfExists(id);
-        int totalQuantity = beerToDecrement.getQuantity() - quantity;
+    /**
+     * Decrements the stock at most once per {@code idempotencyKey}: a retry
+     * with the same key gets the recorded result without touching the stock.
+     */
+    public BeerDTO decrement(Long id, int quantity, String idempotencyKey)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException,
+            IdempotencyKeyReusedException {
 
-        if(totalQuantity < 0) {
-            throw new BeerStockNegativeException();
+        IdempotencyStore.Claim claim = idempotencyStore.claim(idempotencyKey, "decrement:" + id + ":" + quantity);
+
+        if(claim.getReplayed().isPresent()) {
+            return claim.getReplayed().get();
+        }
+
+        try {
+            return idempotencyStore.complete(claim, decrement(id, quantity));
+        } finally {
+            idempotencyStore.release(claim);
+        }
+    }
+
+    /**
+     * Holds {@code quantity} units of the beer for
+     * {@link ReservationProperties#getTtl()}. Held units are left out of the
+     * available stock, {@code quantity - reserved}, until the reservation is
+     * confirmed, released or expires.
+     */
+    @Transactional
+    public ReservationDTO reserve(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockUnavailableException, ReservationsUnsupportedException {
+
+        verifyReservationsSupported();
+
+        if(beerRepository.reserveStock(id, quantity) == 0) {
+            verifyIfExists(id);
+            throw new BeerStockUnavailableException();
+        }
+
+        Instant expiresAt = Instant.now().plus(reservationProperties.getTtl());
+        StockReservation reservation = stockReservationRepository.save(
+                new StockReservation(null, id, quantity, expiresAt));
+
+        // Should this transaction roll back, the expiry finds no reservation
+        reservationTimer.schedule(reservation.getId(), expiresAt);
+
+        return reservationMapper.toDTO(reservation);
+    }
+
+    /**
+     * Takes the reserved units out of the stock for good.
+     */
+    @Transactional
+    public BeerDTO confirmReservation(Long reservationId)
+            throws ReservationNotFoundException, BeerNotFoundException, ReservationsUnsupportedException {
+
+        verifyReservationsSupported();
+
+        StockReservation reservation = claimReservation(reservationId);
+
+        if(beerRepository.confirmReservedStock(reservation.getBeerId(), reservation.getQuantity()) == 0) {
+            throw new BeerNotFoundException();
+        }
+
+        Beer beerDecremented = verifyIfExists(reservation.getBeerId());
+        publishMovement(beerDecremented.getId(), -reservation.getQuantity(), beerDecremented.getQuantity(),
+                StockMovementReason.DECREMENT);
+
+        return publish(BeerChangedEvent.Type.STOCK_CHANGED, beerDecremented);
+    }
+
+    /**
+     * Returns the reserved units to the available stock. Also used when a
+     * reservation expires.
+     */
+    @Transactional
+    public void releaseReservation(Long reservationId)
+            throws ReservationNotFoundException, ReservationsUnsupportedException {
+
+        verifyReservationsSupported();
+
+        StockReservation reservation = claimReservation(reservationId);
+        beerRepository.releaseReservedStock(reservation.getBeerId(), reservation.getQuantity());
+    }
+
+    /**
+     * Applies every adjustment in one transaction and reports each one
+     * separately; a rejected adjustment leaves the stock untouched but does
+     * not stop the others. Adjustments are evaluated in the given order.
+     */
+    @Transactional
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments) {
+        if(!stockUpdateStrategy.writesThroughToDatabase()) {
+            return adjustStockOneByOne(adjustments);
+        }
+
+        int[] updatedRows = beerStockBatchRepository.adjustStock(adjustments);
+
+        Set<Long> ids = adjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Beer> beers = beerRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        Set<Long> changedIds = new HashSet<>();
+
+        for(int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            Beer beer = beers.get(adjustment.getId());
+            boolean applied = updatedRows[i] > 0;
+
+            if(applied) {
+                changedIds.add(beer.getId());
+            }
+
+            results.add(toAdjustmentResult(adjustment, beer, applied));
         }
 
-        beerToDecrement.setQuantity(totalQuantity);
-        Beer beerDecremented = beerRepository.save(beerToDecrement);
+        publishAdjustmentMovements(adjustments, updatedRows, beers);
+        changedIds.forEach(id -> publish(BeerChangedEvent.Type.STOCK_CHANGED, beers.get(id)));
 
-        return beerMapper.toDTO(beerDecremented);
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustStockOneByOne(List<StockAdjustmentDTO> adjustments) {
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+
+        for(StockAdjustmentDTO adjustment : adjustments) {
+            StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                    .id(adjustment.getId())
+                    .delta(adjustment.getDelta())
+                    .build();
+
+            try {
+                Beer beer = adjustment.getDelta() >= 0
+                        ? stockUpdateStrategy.increment(adjustment.getId(), adjustment.getDelta())
+                        : stockUpdateStrategy.decrement(adjustment.getId(), -adjustment.getDelta());
+
+                publishMovement(beer.getId(), adjustment.getDelta(), beer.getQuantity(),
+                        StockMovementReason.ADJUSTMENT);
+                result.setQuantity(publish(BeerChangedEvent.Type.STOCK_CHANGED, beer).getQuantity());
+                result.setStatus(StockAdjustmentStatus.APPLIED);
+
+            } catch(BeerNotFoundException e) {
+                result.setStatus(StockAdjustmentStatus.NOT_FOUND);
+                result.setMessage(e.getMessage());
+            } catch(BeerStockExceededException e) {
+                result.setStatus(StockAdjustmentStatus.EXCEEDED);
+                result.setMessage(e.getMessage());
+            } catch(BeerStockNegativeException e) {
+                result.setStatus(StockAdjustmentStatus.NEGATIVE);
+                result.setMessage(e.getMessage());
+            } catch(BeerStockConflictException e) {
+                result.setStatus(StockAdjustmentStatus.CONFLICT);
+                result.setMessage(e.getMessage());
+            }
+
+            results.add(result);
+        }
+
+        return results;
+    }
+
+    /**
+     * Our updates keep the adjusted rows locked until commit, so the stock
+     * after each applied adjustment is the final stock minus the deltas
+     * applied after it to the same beer.
+     */
+    private void publishAdjustmentMovements(List<StockAdjustmentDTO> adjustments, int[] updatedRows,
+                                            Map<Long, Beer> beers) {
+
+        Map<Long, Integer> stockAfter = new HashMap<>();
+        int[] resultingQuantities = new int[adjustments.size()];
+
+        for(int i = adjustments.size() - 1; i >= 0; i--) {
+            if(updatedRows[i] > 0) {
+                StockAdjustmentDTO adjustment = adjustments.get(i);
+                int quantity = stockAfter.getOrDefault(adjustment.getId(),
+                        beers.get(adjustment.getId()).getQuantity());
+
+                resultingQuantities[i] = quantity;
+                stockAfter.put(adjustment.getId(), quantity - adjustment.getDelta());
+            }
+        }
+
+        for(int i = 0; i < adjustments.size(); i++) {
+            if(updatedRows[i] > 0) {
+                StockAdjustmentDTO adjustment = adjustments.get(i);
+                publishMovement(adjustment.getId(), adjustment.getDelta(), resultingQuantities[i],
+                        StockMovementReason.ADJUSTMENT);
+            }
+        }
+    }
+
+    private StockAdjustmentResultDTO toAdjustmentResult(StockAdjustmentDTO adjustment,
+                                                        Beer beer, boolean applied) {
+
+        StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                .id(adjustment.getId())
+                .delta(adjustment.getDelta())
+                .build();
+
+        if(beer == null) {
+            result.setStatus(StockAdjustmentStatus.NOT_FOUND);
+            result.setMessage(new BeerNotFoundException().getMessage());
+            return result;
+        }
+
+        result.setQuantity(beer.getQuantity());
+
+        if(applied) {
+            result.setStatus(StockAdjustmentStatus.APPLIED);
+        } else if(adjustment.getDelta() > 0) {
+            result.setStatus(StockAdjustmentStatus.EXCEEDED);
+            result.setMessage(new BeerStockExceededException().getMessage());
+        } else {
+            result.setStatus(StockAdjustmentStatus.NEGATIVE);
+            result.setMessage(new BeerStockNegativeException().getMessage());
+        }
+
+        return result;
+    }
+
+    private Set<String> findRegisteredNames(List<BeerDTO> beersDTO) {
+        List<String> names = beersDTO.stream()
+                .map(beerDTO -> Beer.normalize(beerDTO.getName()))
+                .distinct()
+                .collect(Collectors.toList());
+
+        Set<String> registeredNames = new HashSet<>();
+
+        for(int i = 0; i < names.size(); i += NAME_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = names.subList(i, Math.min(i + NAME_LOOKUP_CHUNK_SIZE, names.size()));
+            registeredNames.addAll(beerRepository.findNormalizedNamesIn(chunk));
+        }
+
+        return registeredNames;
+    }
+
+    private void insertBatch(Map<Integer, Beer> pendingBeers, BeerCreationResultDTO[] results) {
+        if(pendingBeers.isEmpty()) {
+            return;
+        }
+
+        beerRepository.saveAll(pendingBeers.values());
+        beerRepository.flush();
+
+        pendingBeers.forEach((index, savedBeer) -> results[index] = BeerCreationResultDTO.builder()
+                .name(savedBeer.getName())
+                .status(BeerCreationStatus.CREATED)
+                .beer(publish(BeerChangedEvent.Type.CREATED, savedBeer))
+                .build());
+
+        entityManager.clear();
+        pendingBeers.clear();
+    }
+
+    private BeerDTO loadByName(String normalizedName) {
+        return beerRepository.findByNormalizedName(normalizedName)
+                .map(beer -> withCurrentStock(Collections.singletonList(beerMapper.toDTO(beer))).get(0))
+                .orElse(null);
+    }
+
+    /**
+     * Overlays the stock a strategy keeps outside the table on beers read
+     * from it.
+     */
+    private List<BeerDTO> withCurrentStock(List<BeerDTO> beersDTO) {
+        if(stockUpdateStrategy.writesThroughToDatabase() || beersDTO.isEmpty()) {
+            return beersDTO;
+        }
+
+        List<Long> ids = beersDTO.stream()
+                .map(BeerDTO::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Integer> quantities = stockUpdateStrategy.currentQuantities(ids);
+
+        beersDTO.forEach(beerDTO -> {
+            Integer quantity = quantities.get(beerDTO.getId());
+
+            if(quantity != null) {
+                beerDTO.setQuantity(quantity);
+            }
+        });
+
+        return beersDTO;
+    }
+
+    private BeerDTO publish(BeerChangedEvent.Type type, Beer beer) {
+        BeerDTO beerDTO = beerMapper.toDTO(beer);
+        eventPublisher.publishEvent(new BeerChangedEvent(type, beerDTO, beer.getVersion()));
+
+        return beerDTO;
+    }
+
+    private void publishMovement(Long beerId, int delta, int resultingQuantity, StockMovementReason reason) {
+        eventPublisher.publishEvent(new StockMovedEvent(beerId, delta, resultingQuantity, reason, Instant.now()));
+    }
+
+    private BeerPageDTO toPage(List<Beer> beers, int pageSize) {
+        boolean hasNext = beers.size() > pageSize;
+        List<Beer> pageBeers = hasNext ? beers.subList(0, pageSize) : beers;
+
+        String nextCursor = hasNext
+                ? BeerCursor.encode(pageBeers.get(pageSize - 1).getId())
+                : null;
+
+        List<BeerDTO> beersDTO = pageBeers.stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return new BeerPageDTO(withCurrentStock(beersDTO), nextCursor);
+    }
+
+    private BeerPageDTO toPage(List<Tuple> rows, int pageSize, Set<BeerField> fields) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Tuple> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext
+                ? BeerCursor.encode(pageRows.get(pageSize - 1).get(BeerField.ID.getProperty(), Long.class))
+                : null;
+
+        List<BeerDTO> beersDTO = new ArrayList<>(pageRows.size());
+
+        for(Tuple row : pageRows) {
+            BeerDTO beerDTO = new SparseBeerDTO();
+
+            for(BeerField field : fields) {
+                field.copy(beerDTO, row.get(field.getProperty()));
+            }
+
+            beersDTO.add(beerDTO);
+        }
+
+        if(fields.contains(BeerField.QUANTITY) && !stockUpdateStrategy.writesThroughToDatabase()) {
+            List<Long> ids = new ArrayList<>(pageRows.size());
+            pageRows.forEach(row -> ids.add(row.get(BeerField.ID.getProperty(), Long.class)));
+
+            Map<Long, Integer> quantities = stockUpdateStrategy.currentQuantities(ids);
+
+            for(int i = 0; i < ids.size(); i++) {
+                Integer quantity = quantities.get(ids.get(i));
+
+                if(quantity != null) {
+                    beersDTO.get(i).setQuantity(quantity);
+                }
+            }
+        }
+
+        return new BeerPageDTO(beersDTO, nextCursor);
     }
 
     private void verifyIfIsRegistered(String beerName)
             throws BeerAlreadyRegisteredException {
 
-        Optional<Beer> isRegistered = beerRepository.findByName(beerName);
+        Optional<Beer> isRegistered = beerRepository.findByNormalizedName(Beer.normalize(beerName));
 
         if(isRegistered.isPresent()) {
             throw new BeerAlreadyRegisteredException(beerName);
         }
     }
 
+    private StockReservation claimReservation(Long reservationId)
+            throws ReservationNotFoundException {
+
+        StockReservation reservation = stockReservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+
+        // Confirm, release and expiry race for the row; only one deletes it
+        if(stockReservationRepository.claim(reservationId) == 0) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+
+        return reservation;
+    }
+
+    /**
+     * Reservations live in the beer table, so a strategy keeping the stock
+     * elsewhere would never see them, and its next flush would undo a
+     * confirmed or released one.
+     */
+    private void verifyReservationsSupported() throws ReservationsUnsupportedException {
+        if(!stockUpdateStrategy.writesThroughToDatabase()) {
+            throw new ReservationsUnsupportedException();
+        }
+    }
+
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
         return beerRepository.findById(id)
                 .orElseThrow(BeerNotFoundException::new);
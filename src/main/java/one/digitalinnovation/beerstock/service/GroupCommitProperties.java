@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * How long a batch waits for more mutations after its first one. Zero
+     * only batches the mutations queued while the previous batch committed.
+     */
+    private Duration window = Duration.ofMillis(1);
+
+    /** Mutations committed together at most. */
+    private int maxBatchSize = 256;
+
+    /**
+     * Committer threads; each commits the beers whose id hashes to it, so
+     * cold beers do not queue behind hot ones.
+     */
+    private int partitions = 4;
+
+    /** Mutations waiting for a batch before callers block, split evenly across partitions. */
+    private int queueCapacity = 10_000;
+}
@@ -0,0 +1,343 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+
+import org.springframework.stereotype.Component;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.annotation.PreDestroy;
+import javax.annotation.PostConstruct;
+
+/**
+ * Group commit for hot rows: concurrent mutations are queued and applied by
+ * committer threads, many per transaction.
+ *
+ * <p>Beers are spread over {@link GroupCommitProperties#getPartitions()}
+ * committers by id, each with its own queue, so a cold beer does not wait
+ * behind a hot one's batches and a beer's mutations stay in arrival order.</p>
+ *
+ * <p>A batch starts with the first queued mutation and takes whatever
+ * arrives within {@link GroupCommitProperties#getWindow()}, up to
+ * {@link GroupCommitProperties#getMaxBatchSize()} mutations. Its beers are
+ * locked in id order and every mutation is checked against max, or the
+ * reserved units, in arrival order as if it ran alone; a rejected one
+ * leaves the stock untouched for the ones after it. Each changed beer is
+ * then written once with its net stock, and the batch commits together.
+ * Callers block until then and get their own result or exception, so the
+ * contract is the same as the atomic strategy's. If the batch fails as a
+ * whole its mutations are retried one per transaction, so a failing one
+ * does not fail the rest.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "group-commit")
+public class GroupCommitStockUpdateStrategy implements StockUpdateStrategy {
+
+    public static final String BATCH_SIZE_SUMMARY = "beerstock.stock.group-commit.batch.size";
+
+    private static final String UPDATE_SQL = "UPDATE beer SET quantity = ?, version = ? WHERE id = ?";
+
+    /** How often an idle committer checks for shutdown. */
+    private static final long IDLE_POLL_MS = 100;
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitProperties groupCommitProperties;
+    private final DistributionSummary batchSizes;
+
+    private final List<Committer> committers;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public GroupCommitStockUpdateStrategy(BeerRepository beerRepository, JdbcTemplate jdbcTemplate,
+                                          PlatformTransactionManager transactionManager,
+                                          GroupCommitProperties groupCommitProperties,
+                                          MeterRegistry meterRegistry) {
+
+        this.beerRepository = beerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.groupCommitProperties = groupCommitProperties;
+
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_SUMMARY)
+                .baseUnit("mutations")
+                .register(meterRegistry);
+
+        int partitions = groupCommitProperties.getPartitions();
+        this.committers = new ArrayList<>(partitions);
+
+        for(int i = 0; i < partitions; i++) {
+            committers.add(new Committer(i, groupCommitProperties.getQueueCapacity() / partitions));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        committers.forEach(committer -> committer.thread.start());
+    }
+
+    /**
+     * Stops taking new batches once the queued mutations are committed, and
+     * fails any mutation queued after its committer exited.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        for(Committer committer : committers) {
+            committer.thread.join();
+
+            List<Mutation> abandoned = new ArrayList<>();
+            committer.pending.drainTo(abandoned);
+            abandoned.forEach(mutation -> mutation.result.completeExceptionally(stopped(mutation.id)));
+        }
+    }
+
+    @Override
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+
+        return submit(new Mutation(id, quantity), BeerStockExceededException.class);
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException {
+
+        return submit(new Mutation(id, -quantity), BeerStockNegativeException.class);
+    }
+
+    private <E extends Exception> Beer submit(Mutation mutation, Class<E> rejection)
+            throws BeerNotFoundException, BeerStockConflictException, E {
+
+        if(!running) {
+            throw stopped(mutation.id);
+        }
+
+        BlockingQueue<Mutation> pending = committerOf(mutation.id).pending;
+
+        try {
+            pending.put(mutation);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stopped(mutation.id);
+        }
+
+        // stop() may have run since the check; if nothing took the mutation, nothing will
+        if(!running && pending.remove(mutation)) {
+            throw stopped(mutation.id);
+        }
+
+        try {
+            // Once queued the mutation may be applied, so wait for it even if interrupted
+            return mutation.result.join();
+
+        } catch(CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if(cause instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) cause;
+            }
+
+            if(cause instanceof BeerStockConflictException) {
+                throw (BeerStockConflictException) cause;
+            }
+
+            if(rejection.isInstance(cause)) {
+                throw rejection.cast(cause);
+            }
+
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private Committer committerOf(Long id) {
+        return committers.get(Math.floorMod(id.hashCode(), committers.size()));
+    }
+
+    private void commit(List<Mutation> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+        } catch(RuntimeException e) {
+            if(batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+            } else {
+                batch.forEach(mutation -> commit(Collections.singletonList(mutation)));
+            }
+
+            return;
+        }
+
+        batch.forEach(Mutation::complete);
+    }
+
+    private void apply(List<Mutation> batch) {
+        Set<Long> ids = new TreeSet<>();
+        batch.forEach(mutation -> ids.add(mutation.id));
+
+        Map<Long, Beer> beers = new HashMap<>();
+        beerRepository.findAllByIdForUpdate(ids).forEach(beer -> beers.put(beer.getId(), copyOf(beer)));
+
+        Map<Long, Beer> changed = new LinkedHashMap<>();
+
+        for(Mutation mutation : batch) {
+            // Cleared in case this is a retry of a rolled back batch
+            mutation.beer = null;
+            mutation.rejection = null;
+
+            Beer beer = beers.get(mutation.id);
+
+            if(beer == null) {
+                mutation.rejection = new BeerNotFoundException();
+                continue;
+            }
+
+            int totalQuantity = beer.getQuantity() + mutation.delta;
+
+            if(mutation.delta > 0 && totalQuantity > beer.getMax()) {
+                mutation.rejection = new BeerStockExceededException();
+            } else if(mutation.delta < 0 && totalQuantity < beer.getReserved()) {
+                mutation.rejection = new BeerStockNegativeException();
+            } else {
+                beer.setQuantity(totalQuantity);
+                beer.setVersion(beer.getVersion() + 1);
+                changed.put(beer.getId(), beer);
+                mutation.beer = copyOf(beer);
+            }
+        }
+
+        List<Beer> updates = new ArrayList<>(changed.values());
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (statement, beer) -> {
+            statement.setInt(1, beer.getQuantity());
+            statement.setLong(2, beer.getVersion());
+            statement.setLong(3, beer.getId());
+        });
+    }
+
+    /**
+     * A mutation turned away while shutting down, or by an interrupted
+     * enqueue, was never applied and can be retried, like a conflict.
+     */
+    private static BeerStockConflictException stopped(Long id) {
+        return new BeerStockConflictException(id);
+    }
+
+    private static Beer copyOf(Beer beer) {
+        return new Beer(beer.getId(), beer.getName(), beer.getNormalizedName(), beer.getBrand(),
+                beer.getMax(), beer.getQuantity(), beer.getReserved(), beer.getType(), beer.getVersion());
+    }
+
+    /** A queue of mutations and the thread that commits them. */
+    private final class Committer {
+
+        private final BlockingQueue<Mutation> pending;
+        private final Thread thread;
+
+        Committer(int partition, int queueCapacity) {
+            this.pending = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+            this.thread = new Thread(this::commitLoop, "stock-group-commit-" + partition);
+            this.thread.setDaemon(true);
+        }
+
+        private void commitLoop() {
+            while(running || !pending.isEmpty()) {
+                List<Mutation> batch = collect();
+
+                if(!batch.isEmpty()) {
+                    batchSizes.record(batch.size());
+                    commit(batch);
+                }
+            }
+        }
+
+        private List<Mutation> collect() {
+            List<Mutation> batch = new ArrayList<>();
+            int maxBatchSize = groupCommitProperties.getMaxBatchSize();
+
+            try {
+                Mutation first = pending.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+
+                if(first == null) {
+                    return batch;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + groupCommitProperties.getWindow().toNanos();
+
+                while(batch.size() < maxBatchSize) {
+                    if(pending.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    Mutation next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : null;
+
+                    if(next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+            } catch(InterruptedException e) {
+                // stop() ends the loop; commit what was collected
+            }
+
+            return batch;
+        }
+    }
+
+    private static final class Mutation {
+
+        private final Long id;
+        private final int delta;
+        private final CompletableFuture<Beer> result = new CompletableFuture<>();
+
+        // Set by the committer inside the transaction, published once it commits
+        private Beer beer;
+        private Exception rejection;
+
+        Mutation(Long id, int delta) {
+            this.id = id;
+            this.delta = delta;
+        }
+
+        void complete() {
+            if(rejection != null) {
+                result.completeExceptionally(rejection);
+            } else {
+                result.complete(beer);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.journal")
+public class JournalProperties {
+
+    /** Directory holding the journal and snapshot files. */
+    private String directory = "data/journal";
+
+    /** Records the journal holds before a checkpoint is forced. */
+    private int capacity = 1_000_000;
+
+    /** Force every record to disk; needed to survive power loss, not just a crash. */
+    private boolean forceEachAppend = false;
+}
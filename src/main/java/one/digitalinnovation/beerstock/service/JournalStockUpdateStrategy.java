@@ -0,0 +1,333 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.journal.StockRecord;
+import one.digitalinnovation.beerstock.journal.StockJournal;
+import one.digitalinnovation.beerstock.journal.StockSnapshot;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.annotation.PreDestroy;
+import javax.annotation.PostConstruct;
+
+/**
+ * Journal persistence mode for small single-node deployments.
+ *
+ * <p>The stock of every beer lives in memory. A mutation is checked
+ * against it, appended to a memory-mapped {@link StockJournal} and applied,
+ * without touching the database, so it costs microseconds. The relational
+ * table is brought up to date in the background; until then searches
+ * filter on a stock that can lag by up to
+ * {@code beerstock.journal.sync-interval-ms}, though the beers they return
+ * report the stock held here.</p>
+ *
+ * <p>A checkpoint snapshots every stock and starts a new journal
+ * generation. At startup the latest snapshot and the journal tail are
+ * replayed on top of the table, which is then synced before requests are
+ * served. Single node only: other instances writing the same table would
+ * be overwritten.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "journal")
+public class JournalStockUpdateStrategy implements StockUpdateStrategy {
+
+    static final String JOURNAL_FILE = "stock.journal";
+    static final String SNAPSHOT_FILE = "stock.snapshot";
+
+    private static final String SYNC_SQL = "UPDATE beer SET quantity = ?, version = ? WHERE id = ?";
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BeerCache beerCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JournalProperties journalProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final Map<Long, Beer> beers = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    /** Held shared by mutations and exclusively by checkpoints. */
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    private Path snapshotFile;
+    private StockJournal journal;
+
+    @Autowired
+    public JournalStockUpdateStrategy(BeerRepository beerRepository, JdbcTemplate jdbcTemplate,
+                                      BeerCache beerCache, ApplicationEventPublisher eventPublisher,
+                                      JournalProperties journalProperties) {
+
+        this.beerRepository = beerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.beerCache = beerCache;
+        this.eventPublisher = eventPublisher;
+        this.journalProperties = journalProperties;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        Path directory = Paths.get(journalProperties.getDirectory());
+        Files.createDirectories(directory);
+
+        snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        journal = new StockJournal(directory.resolve(JOURNAL_FILE),
+                journalProperties.getCapacity(), journalProperties.isForceEachAppend());
+
+        beerRepository.findAll().forEach(beer -> beers.put(beer.getId(), beer));
+
+        long snapshotSequence = 0;
+        StockSnapshot snapshot = StockSnapshot.readFrom(snapshotFile).orElse(null);
+
+        if(snapshot != null) {
+            snapshot.getStocks().forEach(this::replay);
+            snapshotSequence = snapshot.getSequence();
+        }
+
+        journal.recover(snapshotSequence).forEach(this::replay);
+
+        syncToDatabase();
+        checkpoint();
+    }
+
+    @Override
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+
+        return mutate(id, beer -> {
+            int totalQuantity = beer.getQuantity() + quantity;
+
+            if(totalQuantity > beer.getMax()) {
+                throw new BeerStockExceededException();
+            }
+
+            return totalQuantity;
+        });
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException {
+
+        return mutate(id, beer -> {
+            int totalQuantity = beer.getQuantity() - quantity;
+
+            if(totalQuantity < beer.getReserved()) {
+                throw new BeerStockNegativeException();
+            }
+
+            return totalQuantity;
+        });
+    }
+
+    @Override
+    public boolean writesThroughToDatabase() {
+        return false;
+    }
+
+    @Override
+    public Map<Long, Integer> currentQuantities(Collection<Long> ids) {
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        for(Long id : ids) {
+            Beer beer = beers.get(id);
+
+            if(beer != null) {
+                synchronized(beer) {
+                    quantities.put(id, beer.getQuantity());
+                }
+            }
+        }
+
+        return quantities;
+    }
+
+    /**
+     * Writes the stock of every beer changed since the last run to the
+     * table in one JDBC batch, then evicts those beers from the cache and
+     * publishes a {@link StockSyncedEvent}. If the batch fails its beers
+     * are marked dirty again and retried by the next run.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.journal.sync-interval-ms:200}")
+    public void syncToDatabase() {
+        List<Beer> changed = new ArrayList<>();
+
+        for(Long id : dirtyIds) {
+            dirtyIds.remove(id);
+            Beer beer = beers.get(id);
+
+            if(beer != null) {
+                synchronized(beer) {
+                    changed.add(copyOf(beer));
+                }
+            }
+        }
+
+        if(changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(SYNC_SQL, changed, changed.size(), (statement, beer) -> {
+                statement.setInt(1, beer.getQuantity());
+                statement.setLong(2, beer.getVersion());
+                statement.setLong(3, beer.getId());
+            });
+        } catch(RuntimeException e) {
+            changed.forEach(beer -> dirtyIds.add(beer.getId()));
+            throw e;
+        }
+
+        List<Long> ids = new ArrayList<>(changed.size());
+
+        changed.forEach(beer -> {
+            beerCache.evict(Beer.normalize(beer.getName()));
+            ids.add(beer.getId());
+        });
+
+        eventPublisher.publishEvent(new StockSyncedEvent(ids));
+    }
+
+    /**
+     * Snapshots every stock and starts a new journal generation, bounding
+     * both the journal size and the replay time.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.journal.checkpoint-interval-ms:60000}")
+    public void checkpoint() throws IOException {
+        checkpointLock.writeLock().lock();
+
+        try {
+            List<StockRecord> stocks = new ArrayList<>(beers.size());
+            beers.values().forEach(beer -> stocks.add(
+                    new StockRecord(0, beer.getId(), beer.getQuantity(), beer.getVersion())));
+
+            new StockSnapshot(journal.getLastSequence(), stocks).writeTo(snapshotFile);
+            journal.reset();
+
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        syncToDatabase();
+        checkpoint();
+        journal.close();
+    }
+
+    /** Keeps the in-memory stock in step with beers created and deleted through {@link BeerService}. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        Long id = event.getBeer().getId();
+
+        if(event.getType() == BeerChangedEvent.Type.DELETED) {
+            beers.remove(id);
+        } else if(event.getType() == BeerChangedEvent.Type.CREATED) {
+            Beer beer = beerMapper.toModel(event.getBeer());
+            beer.setVersion(event.getVersion());
+            beers.putIfAbsent(id, beer);
+        }
+    }
+
+    @FunctionalInterface
+    interface StockChange<E extends Exception> {
+        int apply(Beer beer) throws E;
+    }
+
+    private <E extends Exception> Beer mutate(Long id, StockChange<E> change)
+            throws BeerNotFoundException, E {
+
+        while(true) {
+            checkpointLock.readLock().lock();
+
+            try {
+                if(journal.hasRoom()) {
+                    Beer beer = find(id);
+
+                    synchronized(beer) {
+                        int quantity = change.apply(beer);
+                        long version = beer.getVersion() + 1;
+
+                        journal.append(id, quantity, version);
+                        beer.setQuantity(quantity);
+                        beer.setVersion(version);
+                        dirtyIds.add(id);
+
+                        return copyOf(beer);
+                    }
+                }
+            } finally {
+                checkpointLock.readLock().unlock();
+            }
+
+            forceCheckpoint();
+        }
+    }
+
+    private Beer find(Long id) throws BeerNotFoundException {
+        Beer beer = beers.get(id);
+
+        if(beer != null) {
+            return beer;
+        }
+
+        // Created but its event not delivered yet.
+        Beer loaded = beerRepository.findById(id)
+                .orElseThrow(BeerNotFoundException::new);
+
+        Beer existing = beers.putIfAbsent(id, loaded);
+
+        return existing != null ? existing : loaded;
+    }
+
+    private void forceCheckpoint() {
+        try {
+            checkpoint();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void replay(StockRecord record) {
+        Beer beer = beers.get(record.getBeerId());
+
+        if(beer != null) {
+            beer.setQuantity(record.getQuantity());
+            beer.setVersion(record.getVersion());
+            dirtyIds.add(beer.getId());
+        }
+    }
+
+    private static Beer copyOf(Beer beer) {
+        return new Beer(beer.getId(), beer.getName(), beer.getNormalizedName(), beer.getBrand(),
+                beer.getMax(), beer.getQuantity(), beer.getReserved(), beer.getType(), beer.getVersion());
+    }
+}
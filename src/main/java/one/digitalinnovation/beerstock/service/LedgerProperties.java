@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.ledger")
+public class LedgerProperties {
+
+    /** Movements buffered before a stock change has to flush them itself. */
+    private int queueCapacity = 10_000;
+
+    /** Movements inserted per transaction when the queue is flushed. */
+    private int batchSize = 500;
+}
@@ -0,0 +1,144 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.AllArgsConstructor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reads the beer, checks the limit in Java and writes it back guarded by
+ * its {@code @Version}. A concurrent write makes the attempt fail; it is
+ * retried in a fresh transaction after a jittered exponential backoff, up
+ * to {@link StockProperties#getMaxAttempts()} attempts, and then surfaces as
+ * {@link BeerStockConflictException}. Suited to low contention, where it
+ * avoids holding row locks while the limit is checked. Retries are
+ * counted across all beers, since a tag per beer id would grow without
+ * bound; the beer whose retries run out is logged instead, pointing at
+ * the hot SKUs.
+ *
+ * <p>Not supported on the default MVStore engine of H2 1.4.200: an UPDATE
+ * waiting for the row lock of a committing transaction can match the
+ * version that transaction replaces, losing a change without any
+ * exception to retry on. Use {@code MV_STORE=FALSE} or another database.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "optimistic")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class OptimisticStockUpdateStrategy implements StockUpdateStrategy {
+
+    public static final String RETRIES_COUNTER = "beerstock.stock.retries";
+    public static final String EXHAUSTED_COUNTER = "beerstock.stock.retries.exhausted";
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockProperties stockProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException {
+
+        return withRetry(id, beer -> {
+            int totalQuantity = beer.getQuantity() + quantity;
+
+            if(totalQuantity > beer.getMax()) {
+                throw new BeerStockExceededException();
+            }
+
+            beer.setQuantity(totalQuantity);
+        });
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException {
+
+        return withRetry(id, beer -> {
+            int totalQuantity = beer.getQuantity() - quantity;
+
+            if(totalQuantity < beer.getReserved()) {
+                throw new BeerStockNegativeException();
+            }
+
+            beer.setQuantity(totalQuantity);
+        });
+    }
+
+    @FunctionalInterface
+    interface StockChange<E extends Exception> {
+        void apply(Beer beer) throws E;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> Beer withRetry(Long id, StockChange<E> change)
+            throws BeerNotFoundException, BeerStockConflictException, E {
+
+        for(int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        Beer beer = beerRepository.findById(id)
+                                .orElseThrow(BeerNotFoundException::new);
+
+                        change.apply(beer);
+
+                        return beerRepository.saveAndFlush(beer);
+
+                    } catch(RuntimeException e) {
+                        throw e;
+                    } catch(Exception e) {
+                        throw new RejectedChange(e);
+                    }
+                });
+
+            } catch(RejectedChange rejected) {
+                Exception cause = (Exception) rejected.getCause();
+
+                if(cause instanceof BeerNotFoundException) {
+                    throw (BeerNotFoundException) cause;
+                }
+
+                throw (E) cause;
+
+            } catch(ConcurrencyFailureException e) {
+                if(attempt >= stockProperties.getMaxAttempts()) {
+                    meterRegistry.counter(EXHAUSTED_COUNTER).increment();
+                    log.warn("Stock of beer {} still conflicting after {} attempts", id, attempt);
+                    throw new BeerStockConflictException(id);
+                }
+
+                meterRegistry.counter(RETRIES_COUNTER).increment();
+                backOff(id, attempt);
+            }
+        }
+    }
+
+    private void backOff(Long id, int attempt) throws BeerStockConflictException {
+        long baseNanos = stockProperties.getRetryBackoff().toNanos() << Math.min(attempt - 1, 20);
+        long boundNanos = Math.min(baseNanos, stockProperties.getMaxRetryBackoff().toNanos());
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(boundNanos + 1));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeerStockConflictException(id);
+        }
+    }
+}
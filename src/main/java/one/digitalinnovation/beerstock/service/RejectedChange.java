@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.service;
+
+/**
+ * Carries a business rejection, such as a beer not found or a stock
+ * limit, out of a transaction callback, rolling the transaction back.
+ */
+class RejectedChange extends RuntimeException {
+
+    RejectedChange(Exception cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.repository.StockReservationRepository;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
+
+import lombok.AllArgsConstructor;
+
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+
+/**
+ * Releases reservations once their {@link ReservationTimer} deadline
+ * passes. Reservations left open by a previous run are put back on the
+ * timer at startup; those already due are released on the first tick.
+ * Under a stock strategy that does not write through they stay open.
+ */
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReservationExpiry {
+
+    private final BeerService beerService;
+    private final ReservationTimer reservationTimer;
+    private final StockReservationRepository stockReservationRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenReservations() {
+        stockReservationRepository.findAll()
+                .forEach(reservation -> reservationTimer.schedule(reservation.getId(), reservation.getExpiresAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.reservation.tick-ms:1000}")
+    public void releaseExpired() {
+        for(Long reservationId : reservationTimer.expired(Instant.now())) {
+            try {
+                beerService.releaseReservation(reservationId);
+            } catch(ReservationNotFoundException e) {
+                // Confirmed or released before it expired
+            } catch(ReservationsUnsupportedException e) {
+                // Left by a run with a write-through strategy; rescheduled when one runs again
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.reservation")
+public class ReservationProperties {
+
+    /** How long a reservation holds its stock unless confirmed or released. */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    /** Resolution of the expiry timer; holds are released up to one tick late. */
+    private long tickMs = 1000;
+
+    /** Buckets of the expiry timer, ideally covering one ttl of ticks. */
+    private int wheelSize = 1024;
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.timer.HashedTimingWheel;
+
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.time.Instant;
+
+/**
+ * Expiry times of open reservations, kept in a {@link HashedTimingWheel} so
+ * tens of thousands of holds cost one bucket visit per tick rather than a
+ * scheduled task each or a table scan.
+ */
+@Component
+public class ReservationTimer {
+
+    private final HashedTimingWheel<Long> wheel;
+
+    @Autowired
+    public ReservationTimer(ReservationProperties reservationProperties) {
+        this.wheel = new HashedTimingWheel<>(reservationProperties.getTickMs(),
+                reservationProperties.getWheelSize(), System.currentTimeMillis());
+    }
+
+    public void schedule(Long reservationId, Instant expiresAt) {
+        wheel.schedule(reservationId, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * @return the ids of the reservations that expired by {@code now}
+     */
+    public List<Long> expired(Instant now) {
+        return wheel.advance(now.toEpochMilli());
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+}
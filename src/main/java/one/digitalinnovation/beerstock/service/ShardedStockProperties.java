@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.sharded")
+public class ShardedStockProperties {
+
+    /**
+     * Counter rows per beer. More slots let more mutations of one beer run
+     * in parallel, but each slot holds a smaller share of the stock and
+     * runs dry sooner.
+     */
+    private int slots = 8;
+}
@@ -0,0 +1,353 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.StockSlot;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.StockSlotTotals;
+import one.digitalinnovation.beerstock.repository.StockSlotRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.PreDestroy;
+import javax.annotation.PostConstruct;
+
+/**
+ * Sharded counters for beers too hot for a single row.
+ *
+ * <p>The unreserved stock of a beer is split across
+ * {@link ShardedStockProperties#getSlots()} {@link StockSlot} rows, each
+ * holding part of the units and part of the headroom up to max. A mutation
+ * picks a slot at random and applies one conditional UPDATE to that row
+ * only, so up to that many mutations of the same beer run in parallel.
+ * When its slot runs dry, or full, the mutation locks the beer and all its
+ * slots, checks the summed stock against max and the reserved units, and
+ * spreads the result evenly over the slots again. Slots are created the
+ * same way on a beer's first mutation.</p>
+ *
+ * <p>The stock and version of a beer are read from its slots in one
+ * statement once the mutation has committed. Every slot counts the
+ * mutations applied through it, and the version is the beer's own plus
+ * that count, so it only grows and two mutations reporting the same
+ * version report the same stock. Reads through {@link BeerService} overlay
+ * the summed stock too; searches still filter on the stock column, which is
+ * updated from the slots in the background and then announced with a
+ * {@link BeerChangedEvent}.</p>
+ *
+ * <p>The slots are folded back into the column and dropped at startup and
+ * shutdown, so switching strategies does not leave stale counters behind.
+ * Reservations are refused, as with the other strategies that keep the
+ * stock outside the column, and each mutation commits on its own rather
+ * than with the caller's transaction.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "sharded")
+public class ShardedStockUpdateStrategy implements StockUpdateStrategy {
+
+    private static final String ROLLUP_SQL = "UPDATE beer SET quantity = reserved + " +
+            "(SELECT SUM(s.quantity) FROM stock_slot s WHERE s.beer_id = beer.id) " +
+            "WHERE id = ? AND EXISTS (SELECT 1 FROM stock_slot s WHERE s.beer_id = beer.id)";
+
+    private static final String LOCK_SHARDED_BEERS_SQL = "SELECT id FROM beer " +
+            "WHERE id IN (SELECT beer_id FROM stock_slot) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_ALL_SLOTS_SQL = "SELECT id FROM stock_slot FOR UPDATE";
+
+    private static final String FOLD_SQL = "UPDATE beer SET " +
+            "quantity = reserved + (SELECT SUM(s.quantity) FROM stock_slot s WHERE s.beer_id = beer.id), " +
+            "version = version + (SELECT SUM(s.changes) FROM stock_slot s WHERE s.beer_id = beer.id) " +
+            "WHERE id IN (SELECT beer_id FROM stock_slot)";
+
+    private static final String DELETE_ALL_SLOTS_SQL = "DELETE FROM stock_slot";
+
+    private final BeerRepository beerRepository;
+    private final StockSlotRepository stockSlotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardedStockProperties shardedStockProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /** Beers changed since the last rollup. */
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ShardedStockUpdateStrategy(BeerRepository beerRepository, StockSlotRepository stockSlotRepository,
+                                      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher,
+                                      ShardedStockProperties shardedStockProperties) {
+
+        this.beerRepository = beerRepository;
+        this.stockSlotRepository = stockSlotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.shardedStockProperties = shardedStockProperties;
+    }
+
+    @Override
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+
+        Integer updated = transactionTemplate.execute(
+                status -> stockSlotRepository.incrementSlot(id, slot(), quantity));
+
+        if(updated == null || updated == 0) {
+            return rebalance(id, quantity, BeerStockExceededException.class, BeerStockExceededException::new);
+        }
+
+        dirtyIds.add(id);
+
+        return current(id);
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException {
+
+        Integer updated = transactionTemplate.execute(
+                status -> stockSlotRepository.decrementSlot(id, slot(), quantity));
+
+        if(updated == null || updated == 0) {
+            return rebalance(id, -quantity, BeerStockNegativeException.class, BeerStockNegativeException::new);
+        }
+
+        dirtyIds.add(id);
+
+        return current(id);
+    }
+
+    @Override
+    public boolean writesThroughToDatabase() {
+        return false;
+    }
+
+    @Override
+    public Map<Long, Integer> currentQuantities(Collection<Long> ids) {
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        if(!ids.isEmpty()) {
+            stockSlotRepository.sumByBeerIdIn(ids).forEach(totals ->
+                    quantities.put(totals.getBeerId(), totals.getReserved() + totals.getQuantity().intValue()));
+        }
+
+        return quantities;
+    }
+
+    /**
+     * Writes the summed stock of every beer changed since the last run to
+     * the table in one JDBC batch, then publishes each of those beers as
+     * read from its slots, so listeners that dropped a change converge, and
+     * a {@link StockSyncedEvent}.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.sharded.rollup-interval-ms:200}")
+    public void rollUp() {
+        List<Long> ids = new ArrayList<>();
+
+        for(Long id : dirtyIds) {
+            if(dirtyIds.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        if(ids.isEmpty()) {
+            return;
+        }
+
+        Collections.sort(ids);
+
+        jdbcTemplate.batchUpdate(ROLLUP_SQL, ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id));
+
+        current(beerRepository.findAllById(ids)).forEach(beer -> eventPublisher.publishEvent(
+                new BeerChangedEvent(BeerChangedEvent.Type.STOCK_CHANGED, beerMapper.toDTO(beer), beer.getVersion())));
+
+        eventPublisher.publishEvent(new StockSyncedEvent(ids));
+    }
+
+    /**
+     * Moves the stock and change count of every slot back into the beer
+     * table and drops the slots. Slots left by a crash are the latest
+     * stock, so this runs at startup too. Beers and then slots are locked
+     * first, in the same order as a rebalance, so a mutation in flight is
+     * either folded in or finds its slot gone and starts over from the
+     * column.
+     */
+    @PostConstruct
+    @PreDestroy
+    public void fold() {
+        dirtyIds.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList(LOCK_SHARDED_BEERS_SQL, Long.class);
+            jdbcTemplate.queryForList(LOCK_ALL_SLOTS_SQL, Long.class);
+            jdbcTemplate.update(FOLD_SQL);
+            jdbcTemplate.update(DELETE_ALL_SLOTS_SQL);
+        });
+    }
+
+    /** Deleted beers take their slots with them. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if(event.getType() == BeerChangedEvent.Type.DELETED) {
+            dirtyIds.remove(event.getBeer().getId());
+        }
+    }
+
+    /**
+     * Spreads the mutations of one beer evenly over its slots, whichever
+     * threads they come from.
+     */
+    private int slot() {
+        return ThreadLocalRandom.current().nextInt(shardedStockProperties.getSlots());
+    }
+
+    private Beer current(Long id) throws BeerNotFoundException {
+        Beer beer = beerRepository.findById(id)
+                .orElseThrow(BeerNotFoundException::new);
+
+        return current(Collections.singletonList(beer)).get(0);
+    }
+
+    /**
+     * The beers with the stock and version of their slots. The beer's own
+     * version only changes when the slots are folded, which locks them, so
+     * reading it before the slots cannot pair it with a newer count.
+     */
+    private List<Beer> current(List<Beer> beers) {
+        Map<Long, StockSlotTotals> totalsById = new HashMap<>();
+
+        if(!beers.isEmpty()) {
+            List<Long> ids = new ArrayList<>(beers.size());
+            beers.forEach(beer -> ids.add(beer.getId()));
+
+            stockSlotRepository.sumByBeerIdIn(ids).forEach(totals -> totalsById.put(totals.getBeerId(), totals));
+        }
+
+        List<Beer> current = new ArrayList<>(beers.size());
+
+        for(Beer beer : beers) {
+            StockSlotTotals totals = totalsById.get(beer.getId());
+
+            current.add(totals == null
+                    ? beer
+                    : summed(beer, totals.getQuantity().intValue(), totals.getChanges()));
+        }
+
+        return current;
+    }
+
+    /**
+     * Applies {@code delta} to the summed stock in a transaction of its own,
+     * with the beer and all its slots locked, then evens the slots out,
+     * creating or dropping slots when their number differs from the
+     * configured one. The slot tried first may stay locked by its failed
+     * conditional UPDATE until that transaction ends, so it must have ended:
+     * a rebalance holding one slot while waiting for the beer would
+     * deadlock with another holding the beer while waiting for that slot.
+     */
+    private <E extends Exception> Beer rebalance(Long id, int delta, Class<E> rejectionType,
+                                                 Supplier<E> rejection)
+            throws BeerNotFoundException, E {
+
+        Beer rebalanced;
+
+        try {
+            rebalanced = transactionTemplate.execute(status -> {
+                Beer beer = beerRepository.findAllByIdForUpdate(Collections.singleton(id)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new RejectedChange(new BeerNotFoundException()));
+
+                List<StockSlot> slots = stockSlotRepository.findByBeerIdForUpdate(id);
+
+                int unreserved = beer.getQuantity() - beer.getReserved();
+                long changes = 0;
+
+                if(!slots.isEmpty()) {
+                    unreserved = slots.stream().mapToInt(StockSlot::getQuantity).sum();
+                    changes = slots.stream().mapToLong(StockSlot::getChanges).sum();
+                }
+
+                int headroom = beer.getMax() - beer.getReserved();
+                int totalUnreserved = unreserved + delta;
+
+                if(delta > 0 && totalUnreserved > headroom || delta < 0 && totalUnreserved < 0) {
+                    throw new RejectedChange(rejection.get());
+                }
+
+                spread(beer, slots, totalUnreserved, headroom, changes + 1);
+
+                return summed(beer, totalUnreserved, changes + 1);
+            });
+        } catch(RejectedChange rejected) {
+            Throwable cause = rejected.getCause();
+
+            if(cause instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) cause;
+            }
+
+            throw rejectionType.cast(cause);
+        }
+
+        dirtyIds.add(id);
+
+        return rebalanced;
+    }
+
+    private void spread(Beer beer, List<StockSlot> slots, int unreserved, int headroom, long changes) {
+        int count = shardedStockProperties.getSlots();
+
+        if(slots.size() > count) {
+            stockSlotRepository.deleteAll(slots.subList(count, slots.size()));
+            slots = new ArrayList<>(slots.subList(0, count));
+        }
+
+        while(slots.size() < count) {
+            slots.add(new StockSlot(null, beer, slots.size(), 0, 0, 0));
+        }
+
+        // Both shares put the remainder on the lowest slots, so no slot holds more than its capacity
+        for(StockSlot slot : slots) {
+            slot.setQuantity(share(unreserved, count, slot.getSlot()));
+            slot.setCapacity(share(headroom, count, slot.getSlot()));
+            slot.setChanges(slot.getSlot() == 0 ? changes : 0);
+        }
+
+        stockSlotRepository.saveAll(slots);
+    }
+
+    private static Beer summed(Beer beer, int unreserved, long changes) {
+        return new Beer(beer.getId(), beer.getName(), beer.getNormalizedName(), beer.getBrand(),
+                beer.getMax(), beer.getReserved() + unreserved, beer.getReserved(), beer.getType(),
+                beer.getVersion() + changes);
+    }
+
+    private static int share(int total, int count, int slot) {
+        return total / count + (slot < total % count ? 1 : 0);
+    }
+}
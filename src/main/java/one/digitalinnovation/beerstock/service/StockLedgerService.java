@@ -0,0 +1,144 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.StockMovement;
+import one.digitalinnovation.beerstock.dto.StockMovementDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementPageDTO;
+import one.digitalinnovation.beerstock.event.StockMovedEvent;
+import one.digitalinnovation.beerstock.pagination.BeerCursor;
+import one.digitalinnovation.beerstock.mapper.StockMovementMapper;
+import one.digitalinnovation.beerstock.repository.StockMovementRepository;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Service;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.annotation.PreDestroy;
+
+/**
+ * Append-only ledger of applied stock changes.
+ *
+ * <p>Committed {@link StockMovedEvent}s are queued in memory and inserted
+ * in batches on a schedule, so a stock change does not pay for its own
+ * insert. When the queue is full the publishing thread flushes it, which
+ * slows writers down instead of dropping movements. Queued movements are
+ * flushed on shutdown and before the history is read. A batch whose insert
+ * fails is kept and inserted first by the next flush, so only movements
+ * still queued when the process dies are lost.</p>
+ *
+ * <p>The stock change has committed by the time its movement arrives, so
+ * ledger errors never reach its caller, who could retry and apply it
+ * twice. If the queue is full and cannot be flushed, the movement is
+ * dropped and counted in {@value #DROPPED_COUNTER}.</p>
+ */
+@Service
+public class StockLedgerService {
+
+    public static final String DROPPED_COUNTER = "beerstock.ledger.dropped";
+
+    private final StockMovementRepository stockMovementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final StockMovementMapper stockMovementMapper = StockMovementMapper.INSTANCE;
+
+    private final Counter dropped;
+
+    private final BlockingQueue<StockMovement> pending;
+
+    /** The batch being inserted, kept until its insert commits. Guarded by this. */
+    private List<StockMovement> unsaved = new ArrayList<>();
+
+    @Autowired
+    public StockLedgerService(StockMovementRepository stockMovementRepository,
+                              PlatformTransactionManager transactionManager,
+                              LedgerProperties ledgerProperties, MeterRegistry meterRegistry) {
+
+        this.stockMovementRepository = stockMovementRepository;
+        this.ledgerProperties = ledgerProperties;
+        this.pending = new ArrayBlockingQueue<>(ledgerProperties.getQueueCapacity());
+        this.dropped = Counter.builder(DROPPED_COUNTER)
+                .baseUnit("movements")
+                .register(meterRegistry);
+
+        // Flushes may run from an after-commit callback, where the finished
+        // transaction is still bound to the thread.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockMoved(StockMovedEvent event) {
+        StockMovement movement = new StockMovement(null, event.getBeerId(), event.getDelta(),
+                event.getResultingQuantity(), event.getReason(), event.getOccurredAt());
+
+        while(!pending.offer(movement)) {
+            try {
+                flush();
+            } catch(RuntimeException e) {
+                dropped.increment();
+                return;
+            }
+        }
+    }
+
+    public StockMovementPageDTO findMovements(Long beerId, String after, int limit)
+            throws InvalidCursorException {
+
+        long afterId = BeerCursor.decode(after);
+        int pageSize = Math.min(Math.max(limit, 1), BeerService.MAX_PAGE_SIZE);
+
+        flush();
+
+        List<StockMovement> movements = stockMovementRepository.findByBeerIdAndIdGreaterThanOrderByIdAsc(
+                beerId, afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = movements.size() > pageSize;
+        List<StockMovement> pageMovements = hasNext ? movements.subList(0, pageSize) : movements;
+
+        String nextCursor = hasNext
+                ? BeerCursor.encode(pageMovements.get(pageSize - 1).getId())
+                : null;
+
+        List<StockMovementDTO> movementsDTO = pageMovements.stream()
+                .map(stockMovementMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return new StockMovementPageDTO(movementsDTO, nextCursor);
+    }
+
+    /**
+     * Inserts every queued movement, {@link LedgerProperties#getBatchSize()}
+     * per transaction, starting with a batch left by a failed flush.
+     * Serialized so batches are written in queue order.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.ledger.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        while(!unsaved.isEmpty() || !pending.isEmpty()) {
+            if(unsaved.isEmpty()) {
+                pending.drainTo(unsaved, ledgerProperties.getBatchSize());
+            } else {
+                // Ids handed out to the rolled back insert were never written
+                unsaved.forEach(movement -> movement.setId(null));
+            }
+
+            List<StockMovement> batch = unsaved;
+            transactionTemplate.executeWithoutResult(status -> stockMovementRepository.saveAll(batch));
+
+            unsaved = new ArrayList<>(ledgerProperties.getBatchSize());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.stock")
+public class StockProperties {
+
+    public static final String STRATEGY_PROPERTY = "beerstock.stock.strategy";
+
+    /**
+     * atomic (conditional UPDATE), optimistic (@Version with retry), group-commit (concurrent
+     * mutations batched into one transaction), journal (memory-mapped journal), write-behind
+     * (in-memory stock flushed to the table in the background) or sharded (stock split across
+     * counter rows per beer).
+     */
+    private String strategy = "atomic";
+
+    /** Attempts of an optimistic mutation before answering 409. */
+    private int maxAttempts = 5;
+
+    /** Upper bound of the first jittered backoff, doubled on every retry. */
+    private Duration retryBackoff = Duration.ofMillis(5);
+
+    private Duration maxRetryBackoff = Duration.ofMillis(100);
+}
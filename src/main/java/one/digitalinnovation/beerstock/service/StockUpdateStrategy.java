@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * How {@link BeerService} applies a single stock mutation. The active
+ * implementation is chosen with {@code beerstock.stock.strategy}; each one
+ * manages its own transactions and returns the beer as committed.
+ */
+public interface StockUpdateStrategy {
+
+    Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException, BeerStockConflictException;
+
+    Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException, BeerStockConflictException;
+
+    /**
+     * Whether the stock column is always current, so batch adjustments may
+     * update it directly. Strategies that keep the stock elsewhere return
+     * {@code false} and receive batch adjustments one by one.
+     */
+    default boolean writesThroughToDatabase() {
+        return true;
+    }
+
+    /**
+     * Stock of those of the given beers whose stock column is behind, by
+     * id. Reads overlay it on the beers they loaded from the table.
+     */
+    default Map<Long, Integer> currentQuantities(Collection<Long> ids) {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.write-behind")
+public class WriteBehindProperties {
+
+    /** Locks shared by all beers; a power of two, rounded up otherwise. */
+    private int lockStripes = 64;
+
+    /** Beers written to the table per JDBC batch when flushing. */
+    private int batchSize = 500;
+}
@@ -0,0 +1,305 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import javax.annotation.PostConstruct;
+
+/**
+ * In-memory stock for hot SKUs on a single node.
+ *
+ * <p>The stock of every beer is loaded at startup and is authoritative from
+ * then on. A mutation checks the limit and applies the change under the
+ * lock of its stripe, {@code beerstock.write-behind.lock-stripes} locks
+ * shared by all beers, without touching the database. Changed beers are
+ * written to the table in the background, one row per beer however many
+ * times it changed, and on shutdown. Reads report the stock held here, but
+ * until then searches filter on a stock column that lags behind; how far
+ * is exported as {@value #FLUSH_LAG_GAUGE}.</p>
+ *
+ * <p>Nothing is journaled: mutations not yet flushed are lost if the
+ * process dies. Use the journal strategy where that matters. Single node
+ * only: other instances writing the same table would be overwritten.</p>
+ */
+@Component
+@ConditionalOnProperty(name = StockProperties.STRATEGY_PROPERTY, havingValue = "write-behind")
+public class WriteBehindStockUpdateStrategy implements StockUpdateStrategy {
+
+    public static final String FLUSH_LAG_GAUGE = "beerstock.stock.flush.lag";
+    public static final String FLUSH_PENDING_GAUGE = "beerstock.stock.flush.pending";
+
+    private static final String FLUSH_SQL = "UPDATE beer SET quantity = ?, version = ? WHERE id = ?";
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BeerCache beerCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteBehindProperties writeBehindProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final Object[] stripes;
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+
+    /** Beers changed since they were last flushed, with the {@link System#nanoTime()} of their first change. */
+    private final Map<Long, Long> dirtySince = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WriteBehindStockUpdateStrategy(BeerRepository beerRepository, JdbcTemplate jdbcTemplate,
+                                          BeerCache beerCache, ApplicationEventPublisher eventPublisher,
+                                          WriteBehindProperties writeBehindProperties,
+                                          MeterRegistry meterRegistry) {
+
+        this.beerRepository = beerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.beerCache = beerCache;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindProperties = writeBehindProperties;
+
+        int stripeCount = Integer.highestOneBit(Math.max(writeBehindProperties.getLockStripes() * 2 - 1, 1));
+        this.stripes = new Object[stripeCount];
+
+        for(int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Object();
+        }
+
+        TimeGauge.builder(FLUSH_LAG_GAUGE, this, TimeUnit.NANOSECONDS, WriteBehindStockUpdateStrategy::flushLagNanos)
+                .register(meterRegistry);
+        Gauge.builder(FLUSH_PENDING_GAUGE, dirtySince, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        beerRepository.findAll().forEach(beer -> stocks.put(beer.getId(), new Stock(beer)));
+    }
+
+    @Override
+    public Beer increment(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+
+        return mutate(id, stock -> {
+            int totalQuantity = stock.quantity + quantity;
+
+            if(totalQuantity > stock.beer.getMax()) {
+                throw new BeerStockExceededException();
+            }
+
+            return totalQuantity;
+        });
+    }
+
+    @Override
+    public Beer decrement(Long id, int quantity)
+            throws BeerNotFoundException, BeerStockNegativeException {
+
+        return mutate(id, stock -> {
+            int totalQuantity = stock.quantity - quantity;
+
+            if(totalQuantity < stock.beer.getReserved()) {
+                throw new BeerStockNegativeException();
+            }
+
+            return totalQuantity;
+        });
+    }
+
+    @Override
+    public boolean writesThroughToDatabase() {
+        return false;
+    }
+
+    @Override
+    public Map<Long, Integer> currentQuantities(Collection<Long> ids) {
+        Map<Long, Integer> quantities = new HashMap<>();
+
+        for(Long id : ids) {
+            synchronized(stripeOf(id)) {
+                Stock stock = stocks.get(id);
+
+                if(stock != null) {
+                    quantities.put(id, stock.quantity);
+                }
+            }
+        }
+
+        return quantities;
+    }
+
+    /**
+     * Writes the latest stock of every beer changed since the last flush,
+     * in JDBC batches of {@link WriteBehindProperties#getBatchSize()}, then
+     * evicts those beers from the cache and publishes a
+     * {@link StockSyncedEvent} per batch. A failed batch is marked dirty
+     * again and retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.write-behind.flush-interval-ms:100}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>(dirtySince.keySet());
+
+        for(int i = 0; i < ids.size(); i += writeBehindProperties.getBatchSize()) {
+            flush(ids.subList(i, Math.min(i + writeBehindProperties.getBatchSize(), ids.size())));
+        }
+    }
+
+    /** Keeps the in-memory stock in step with beers created and deleted through {@link BeerService}. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        Long id = event.getBeer().getId();
+
+        if(event.getType() == BeerChangedEvent.Type.DELETED) {
+            synchronized(stripeOf(id)) {
+                stocks.remove(id);
+                dirtySince.remove(id);
+            }
+        } else if(event.getType() == BeerChangedEvent.Type.CREATED) {
+            Beer beer = beerMapper.toModel(event.getBeer());
+            beer.setVersion(event.getVersion());
+            stocks.putIfAbsent(id, new Stock(beer));
+        }
+    }
+
+    /**
+     * @return how long the oldest change not yet written to the table has
+     * been waiting, or zero when every change is flushed
+     */
+    long flushLagNanos() {
+        long now = System.nanoTime();
+        long lag = 0;
+
+        for(long since : dirtySince.values()) {
+            lag = Math.max(lag, now - since);
+        }
+
+        return lag;
+    }
+
+    @FunctionalInterface
+    interface StockChange<E extends Exception> {
+        int apply(Stock stock) throws E;
+    }
+
+    private <E extends Exception> Beer mutate(Long id, StockChange<E> change)
+            throws BeerNotFoundException, E {
+
+        Stock stock = find(id);
+
+        synchronized(stripeOf(id)) {
+            // Deleted while we were waiting for the lock
+            if(stocks.get(id) != stock) {
+                throw new BeerNotFoundException();
+            }
+
+            stock.quantity = change.apply(stock);
+            stock.version++;
+            dirtySince.putIfAbsent(id, System.nanoTime());
+
+            return stock.toBeer();
+        }
+    }
+
+    private void flush(List<Long> ids) {
+        List<Beer> changed = new ArrayList<>(ids.size());
+        Map<Long, Long> changedSince = new HashMap<>();
+
+        for(Long id : ids) {
+            synchronized(stripeOf(id)) {
+                Stock stock = stocks.get(id);
+                Long since = dirtySince.remove(id);
+
+                if(stock != null && since != null) {
+                    changed.add(stock.toBeer());
+                    changedSince.put(id, since);
+                }
+            }
+        }
+
+        if(changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, changed, changed.size(), (statement, beer) -> {
+                statement.setInt(1, beer.getQuantity());
+                statement.setLong(2, beer.getVersion());
+                statement.setLong(3, beer.getId());
+            });
+        } catch(RuntimeException e) {
+            changedSince.forEach((id, since) -> dirtySince.merge(id, since, Math::min));
+            throw e;
+        }
+
+        changed.forEach(beer -> beerCache.evict(Beer.normalize(beer.getName())));
+        eventPublisher.publishEvent(new StockSyncedEvent(new ArrayList<>(changedSince.keySet())));
+    }
+
+    private Stock find(Long id) throws BeerNotFoundException {
+        Stock stock = stocks.get(id);
+
+        if(stock != null) {
+            return stock;
+        }
+
+        // Created but its event not delivered yet.
+        Stock loaded = beerRepository.findById(id)
+                .map(Stock::new)
+                .orElseThrow(BeerNotFoundException::new);
+
+        Stock existing = stocks.putIfAbsent(id, loaded);
+
+        return existing != null ? existing : loaded;
+    }
+
+    private Object stripeOf(Long id) {
+        return stripes[Long.hashCode(id) & (stripes.length - 1)];
+    }
+
+    /**
+     * Stock of one beer, guarded by the lock of its stripe. The beer itself
+     * is never modified and only supplies the other fields.
+     */
+    static final class Stock {
+
+        private final Beer beer;
+        private int quantity;
+        private long version;
+
+        Stock(Beer beer) {
+            this.beer = beer;
+            this.quantity = beer.getQuantity();
+            this.version = beer.getVersion() == null ? 0L : beer.getVersion();
+        }
+
+        Beer toBeer() {
+            return new Beer(beer.getId(), beer.getName(), beer.getNormalizedName(), beer.getBrand(),
+                    beer.getMax(), quantity, beer.getReserved(), beer.getType(), version);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package one.digitalinnovation.beerstock.stats;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockStatsDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.index.IndexProperties;
+import one.digitalinnovation.beerstock.repository.BeerTypeStock;
+import one.digitalinnovation.beerstock.repository.BeerBrandStock;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.StockUpdateStrategy;
+
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.List;
+import java.util.EnumMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.EntityManager;
+
+/**
+ * Units in stock, capacity and fill percentage per {@link BeerType} and per
+ * brand, kept in memory so reading them never scans the table.
+ *
+ * <p>Each committed {@link BeerChangedEvent} moves its beer's contribution
+ * from the previous state to the new one, so the counters are loaded once
+ * when the application is ready and then only adjusted. Events older than
+ * the state already counted for a beer are dropped, as in
+ * {@code LowStockIndex}. A scheduled GROUP BY overwrites the totals with
+ * the database's, bounding any drift, e.g. from a change committed while
+ * the reconciliation queries ran. It is skipped when the stock strategy
+ * does not write through: the table lags behind the events then, and would
+ * overwrite current counters with older sums.</p>
+ *
+ * <p>A deleted beer's contribution is kept, counting nothing, to turn away
+ * its late events, and purged once it is older than
+ * {@link IndexProperties#getTombstoneTtl()}, as the indexes purge their
+ * tombstones.</p>
+ */
+@Component
+public class BeerStockStats {
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final StockUpdateStrategy stockUpdateStrategy;
+    private final IndexProperties indexProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final Map<BeerType, Totals> byType = new EnumMap<>(BeerType.class);
+    private final ConcurrentMap<String, Totals> byBrand = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Contribution> byBeer = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BeerStockStats(BeerRepository beerRepository, EntityManager entityManager,
+                          StockUpdateStrategy stockUpdateStrategy, IndexProperties indexProperties) {
+
+        this.beerRepository = beerRepository;
+        this.entityManager = entityManager;
+        this.stockUpdateStrategy = stockUpdateStrategy;
+        this.indexProperties = indexProperties;
+
+        // Every type is present up front, so the map is never modified again
+        for(BeerType type : BeerType.values()) {
+            byType.put(type, new Totals());
+        }
+    }
+
+    public BeerStockStatsDTO snapshot() {
+        List<StockTotalsDTO> types = byType.entrySet()
+                .stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey().name()))
+                .collect(Collectors.toList());
+
+        List<StockTotalsDTO> brands = byBrand.entrySet()
+                .stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .filter(totals -> totals.getBeers() > 0)
+                .sorted(Comparator.comparing(StockTotalsDTO::getGroup))
+                .collect(Collectors.toList());
+
+        return BeerStockStatsDTO.builder()
+                .byType(types)
+                .byBrand(brands)
+                .build();
+    }
+
+    /**
+     * @return units in stock of the given type
+     */
+    public long quantityOf(BeerType type) {
+        return byType.get(type).quantity();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try(Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                count(beerMapper.toDTO(beer), beer.getVersion(), false);
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        count(event.getBeer(), event.getVersion(),
+                event.getType() == BeerChangedEvent.Type.DELETED);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${beerstock.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        if(!stockUpdateStrategy.writesThroughToDatabase()) {
+            return;
+        }
+
+        Map<BeerType, BeerTypeStock> typeStocks = new EnumMap<>(BeerType.class);
+
+        for(BeerTypeStock typeStock : beerRepository.sumStockByType()) {
+            typeStocks.put(typeStock.getType(), typeStock);
+        }
+
+        byType.forEach((type, totals) -> {
+            BeerTypeStock typeStock = typeStocks.get(type);
+
+            if(typeStock == null) {
+                totals.set(0, 0, 0);
+            } else {
+                totals.set(typeStock.getBeers(), typeStock.getQuantity(), typeStock.getCapacity());
+            }
+        });
+
+        Set<String> brands = new HashSet<>();
+
+        for(BeerBrandStock brandStock : beerRepository.sumStockByBrand()) {
+            brands.add(brandStock.getBrand());
+            byBrand.computeIfAbsent(brandStock.getBrand(), brand -> new Totals())
+                    .set(brandStock.getBeers(), brandStock.getQuantity(), brandStock.getCapacity());
+        }
+
+        byBrand.forEach((brand, totals) -> {
+            if(!brands.contains(brand)) {
+                totals.set(0, 0, 0);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.index.purge-interval-ms:60000}")
+    public void purgeDeleted() {
+        long oldest = System.nanoTime() - indexProperties.getTombstoneTtl().toNanos();
+
+        // A deleted contribution counts nothing and nothing replaces it,
+        // so removing it changes no totals
+        byBeer.forEach((id, contribution) -> {
+            if(contribution.deleted && contribution.countedAt - oldest <= 0) {
+                byBeer.remove(id, contribution);
+            }
+        });
+    }
+
+    /**
+     * @return how many beers are tracked, deleted ones included
+     */
+    int tracked() {
+        return byBeer.size();
+    }
+
+    private void count(BeerDTO beer, Long version, boolean deleted) {
+        Contribution update = new Contribution(beer, version == null ? 0L : version, deleted);
+
+        byBeer.compute(beer.getId(), (id, current) -> {
+            if(current != null && !update.isNewerThan(current)) {
+                return current;
+            }
+
+            if(current != null && !current.deleted) {
+                add(current, -1);
+            }
+
+            if(!update.deleted) {
+                add(update, 1);
+            }
+
+            return update;
+        });
+    }
+
+    private void add(Contribution contribution, int sign) {
+        byType.get(contribution.type)
+                .add(sign, sign * contribution.quantity, sign * contribution.max);
+
+        byBrand.computeIfAbsent(contribution.brand, brand -> new Totals())
+                .add(sign, sign * contribution.quantity, sign * contribution.max);
+    }
+
+    private static final class Contribution {
+
+        private final BeerType type;
+        private final String brand;
+        private final long quantity;
+        private final long max;
+        private final long version;
+        private final boolean deleted;
+        private final long countedAt = System.nanoTime();
+
+        Contribution(BeerDTO beer, long version, boolean deleted) {
+            this.type = beer.getType();
+            this.brand = beer.getBrand();
+            this.quantity = beer.getQuantity();
+            this.max = beer.getMax();
+            this.version = version;
+            this.deleted = deleted;
+        }
+
+        boolean isNewerThan(Contribution other) {
+            return !other.deleted && (deleted || version > other.version);
+        }
+    }
+
+    private static final class Totals {
+
+        private long beers;
+        private long quantity;
+        private long capacity;
+
+        synchronized void add(long beers, long quantity, long capacity) {
+            this.beers += beers;
+            this.quantity += quantity;
+            this.capacity += capacity;
+        }
+
+        synchronized void set(long beers, long quantity, long capacity) {
+            this.beers = beers;
+            this.quantity = quantity;
+            this.capacity = capacity;
+        }
+
+        synchronized long quantity() {
+            return quantity;
+        }
+
+        synchronized StockTotalsDTO toDTO(String group) {
+            return StockTotalsDTO.builder()
+                    .group(group)
+                    .beers(beers)
+                    .quantity(quantity)
+                    .capacity(capacity)
+                    .fillPercentage(capacity > 0 ? 100.0 * quantity / capacity : 0.0)
+                    .build();
+        }
+    }
+}
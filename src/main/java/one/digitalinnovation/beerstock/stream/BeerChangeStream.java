@@ -0,0 +1,340 @@
+package one.digitalinnovation.beerstock.stream;
+
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.io.IOException;
+import javax.annotation.PreDestroy;
+
+/**
+ * Pushes committed {@link BeerChangedEvent}s to Server-Sent Events
+ * subscribers.
+ *
+ * <p>Subscriptions are asynchronous requests, so an idle subscriber holds
+ * a connection but no thread. Each subscriber has its own buffer of pending
+ * changes keyed by beer id: a newer change replaces the pending one for the
+ * same beer, so a slow client receives the latest state of each beer rather
+ * than every intermediate one. A small shared pool writes the buffers out,
+ * at most one task per subscriber at a time; changes arriving while a write
+ * is in flight are coalesced into the next one.</p>
+ *
+ * <p>A subscriber that falls behind on more than
+ * {@link StreamProperties#getBufferSize()} distinct beers has its buffer
+ * dropped and receives a single {@value #RESYNC_EVENT} event, after which it
+ * should reload the catalog.</p>
+ *
+ * <p>Writes block while the client's TCP buffer is full, so a write taking
+ * longer than {@link StreamProperties#getSendTimeout()} evicts its
+ * subscriber: the sender is interrupted and the pool gets one more thread
+ * until it returns, so stalled clients cannot hold up the others.</p>
+ */
+@Component
+public class BeerChangeStream {
+
+    public static final String RESYNC_EVENT = "resync";
+    public static final String SUBSCRIBERS_GAUGE = "beerstock.stream.subscribers";
+
+    private final StreamProperties streamProperties;
+    private final Executor sender;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BeerChangeStream(StreamProperties streamProperties, MeterRegistry meterRegistry) {
+        this(streamProperties, meterRegistry, Executors.newFixedThreadPool(
+                streamProperties.getSenderThreads(), BeerChangeStream::senderThread));
+    }
+
+    BeerChangeStream(StreamProperties streamProperties, MeterRegistry meterRegistry, Executor sender) {
+        this.streamProperties = streamProperties;
+        this.sender = sender;
+
+        Gauge.builder(SUBSCRIBERS_GAUGE, subscribers, Set::size)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamProperties.getTimeout().toMillis());
+        register(emitter);
+
+        return emitter;
+    }
+
+    void register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        for(Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Sends a comment to idle subscribers so proxies keep the connection
+     * open and closed clients are noticed.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for(Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    /**
+     * Evicts the subscribers whose write has been blocked for longer than
+     * {@link StreamProperties#getSendTimeout()}.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.stream.send-timeout-check-ms:1000}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        long timeoutNanos = streamProperties.getSendTimeout().toNanos();
+
+        for(Subscriber subscriber : subscribers) {
+            subscriber.evictIfStalled(now, timeoutNanos);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+
+        if(sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdownNow();
+        }
+    }
+
+    /**
+     * Replaces, or gives back, the pool thread held by an evicted
+     * subscriber's write.
+     */
+    private void resizeSender(int delta) {
+        if(!(sender instanceof ThreadPoolExecutor)) {
+            return;
+        }
+
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) sender;
+
+        synchronized(pool) {
+            int size = pool.getCorePoolSize() + delta;
+
+            if(delta > 0) {
+                pool.setMaximumPoolSize(size);
+                pool.setCorePoolSize(size);
+            } else {
+                pool.setCorePoolSize(size);
+                pool.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static Thread senderThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "beer-stream-sender");
+        thread.setDaemon(true);
+
+        return thread;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // Guarded by this subscriber
+        private Map<Long, BeerChangedEvent> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+        private boolean scheduled;
+
+        // Guarded by sendLock, which is never held while writing
+        private final Object sendLock = new Object();
+        private Thread sendingThread;
+        private long sendingSince;
+        private boolean evicted;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(BeerChangedEvent event) {
+            Long id = event.getBeer().getId();
+            BeerChangedEvent current = pending.get(id);
+
+            if(current != null && isOlder(event, current)) {
+                return;
+            }
+
+            if(current == null && pending.size() >= streamProperties.getBufferSize()) {
+                pending.clear();
+                resync = true;
+            } else if(!resync) {
+                pending.put(id, event);
+            }
+
+            schedule();
+        }
+
+        synchronized void heartbeat() {
+            heartbeat = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if(scheduled) {
+                return;
+            }
+
+            scheduled = true;
+
+            try {
+                sender.execute(this::drain);
+            } catch(RejectedExecutionException e) {
+                scheduled = false;
+            }
+        }
+
+        private void drain() {
+            while(true) {
+                Map<Long, BeerChangedEvent> events;
+                boolean sendResync;
+                boolean sendHeartbeat;
+
+                synchronized(this) {
+                    if(pending.isEmpty() && !resync && !heartbeat) {
+                        scheduled = false;
+                        return;
+                    }
+
+                    events = pending;
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat && events.isEmpty() && !resync;
+
+                    pending = new LinkedHashMap<>();
+                    resync = false;
+                    heartbeat = false;
+                }
+
+                try {
+                    sendTimed(events, sendResync, sendHeartbeat);
+                } catch(IOException | IllegalStateException e) {
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+
+                    synchronized(this) {
+                        pending.clear();
+                        scheduled = false;
+                    }
+
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Interrupts the write in flight once it has taken longer than
+         * {@code timeoutNanos}. The emitter is completed by the sender when
+         * the write fails: completing it here would wait for the write.
+         */
+        void evictIfStalled(long now, long timeoutNanos) {
+            synchronized(sendLock) {
+                if(sendingThread == null || evicted || now - sendingSince <= timeoutNanos) {
+                    return;
+                }
+
+                evicted = true;
+                subscribers.remove(this);
+                sendingThread.interrupt();
+            }
+
+            resizeSender(1);
+        }
+
+        private void sendTimed(Map<Long, BeerChangedEvent> events, boolean sendResync, boolean sendHeartbeat)
+                throws IOException {
+
+            synchronized(sendLock) {
+                if(evicted) {
+                    throw new IOException("Subscriber evicted after a stalled write");
+                }
+
+                sendingThread = Thread.currentThread();
+                sendingSince = System.nanoTime();
+            }
+
+            boolean wasEvicted;
+
+            try {
+                send(events, sendResync, sendHeartbeat);
+            } finally {
+                synchronized(sendLock) {
+                    sendingThread = null;
+                    wasEvicted = evicted;
+
+                    // An eviction may have interrupted us; the pool thread must not keep the flag
+                    Thread.interrupted();
+                }
+            }
+
+            if(wasEvicted) {
+                resizeSender(-1);
+                throw new IOException("Subscriber evicted after a stalled write");
+            }
+        }
+
+        private void send(Map<Long, BeerChangedEvent> events, boolean sendResync, boolean sendHeartbeat)
+                throws IOException {
+
+            if(sendResync) {
+                emitter.send(SseEmitter.event()
+                        .name(RESYNC_EVENT)
+                        .data("buffer overflow"));
+                return;
+            }
+
+            if(sendHeartbeat) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+
+            for(BeerChangedEvent event : events.values()) {
+                emitter.send(SseEmitter.event()
+                        .name(event.getType().name().toLowerCase())
+                        .data(event.getBeer(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        private boolean isOlder(BeerChangedEvent event, BeerChangedEvent current) {
+            if(current.getType() == BeerChangedEvent.Type.DELETED) {
+                return true;
+            }
+
+            return event.getType() != BeerChangedEvent.Type.DELETED
+                    && event.getVersion() != null && current.getVersion() != null
+                    && event.getVersion() < current.getVersion();
+        }
+    }
+}
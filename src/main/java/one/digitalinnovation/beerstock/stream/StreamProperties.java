@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.stream;
+
+import lombok.Data;
+
+import org.springframework.stereotype.Component;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.stream")
+public class StreamProperties {
+
+    /** Distinct beers a subscriber may have pending before it is told to resync. */
+    private int bufferSize = 1_000;
+
+    /** Threads writing events to subscribers, shared by all of them. */
+    private int senderThreads = 4;
+
+    /** How long a single write may block before its subscriber is evicted. */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /** How long a subscription stays open before the client has to reconnect. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
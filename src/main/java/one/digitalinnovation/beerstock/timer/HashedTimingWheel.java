@@ -0,0 +1,109 @@
+package one.digitalinnovation.beerstock.timer;
+
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, where a timeout is
+ * placed in the bucket of the tick its deadline falls on. Scheduling is
+ * O(1) and each {@link #advance} only visits the buckets of the ticks that
+ * elapsed, so the cost of expiring does not grow with the number of
+ * timeouts that are not due yet. Deadlines further away than one turn of
+ * the wheel share buckets with nearer ones and are skipped until their
+ * turn comes.
+ *
+ * <p>Timeouts fire up to one tick late and are never cancelled: callers
+ * that finish early have to ignore the expiry instead.</p>
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<ArrayDeque<Timeout<T>>> buckets;
+
+    // Guarded by this wheel
+    private long lastTick;
+    private int size;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if(tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        this.lastTick = startMillis / tickMillis;
+
+        for(int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Schedules {@code value} to be returned by the first {@link #advance}
+     * at or after {@code deadlineMillis}. A deadline already in the past
+     * fires on the next tick.
+     */
+    public synchronized void schedule(T value, long deadlineMillis) {
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), lastTick + 1);
+
+        bucket(tick).add(new Timeout<>(value, deadlineMillis));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}.
+     *
+     * @return the values whose deadline is at or before {@code nowMillis}
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        long ticks = Math.min(currentTick - lastTick, buckets.size());
+        List<T> expired = new ArrayList<>();
+
+        for(long tick = currentTick - ticks + 1; tick <= currentTick; tick++) {
+            Iterator<Timeout<T>> timeouts = bucket(tick).iterator();
+
+            while(timeouts.hasNext()) {
+                Timeout<T> timeout = timeouts.next();
+
+                if(timeout.deadlineMillis <= nowMillis) {
+                    expired.add(timeout.value);
+                    timeouts.remove();
+                }
+            }
+        }
+
+        lastTick = Math.max(lastTick, currentTick);
+        size -= expired.size();
+
+        return expired;
+    }
+
+    /**
+     * @return how many timeouts are still pending
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private ArrayDeque<Timeout<T>> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    private static final class Timeout<T> {
+
+        private final T value;
+        private final long deadlineMillis;
+
+        Timeout(T value, long deadlineMillis) {
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+public class BeerCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerCache = new BeerCache(new BeerCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void whenABeerIsLoadedTwiceThenTheLoaderRunsOnce() {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        beerCache.get(beerDTO.getName(), name -> countedLoad(loads, beerDTO));
+        BeerDTO cachedBeerDTO = beerCache.get(beerDTO.getName(), name -> countedLoad(loads, beerDTO));
+
+        // THEN
+        assertThat(cachedBeerDTO, is(equalTo(beerDTO)));
+        assertThat(loads.get(), is(1));
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), is(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenABeerChangesThenItsEntryIsInvalidated() {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String key = Beer.normalize(beerDTO.getName());
+        AtomicInteger loads = new AtomicInteger();
+        beerCache.get(key, name -> countedLoad(loads, beerDTO));
+
+        // WHEN
+        beerCache.onBeerChanged(new BeerChangedEvent(BeerChangedEvent.Type.STOCK_CHANGED, beerDTO, 1L));
+        beerCache.get(key, name -> countedLoad(loads, beerDTO));
+
+        // THEN
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void whenTheLoaderFindsNothingThenTheMissIsNotCached() {
+
+        // GIVEN
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        beerCache.get("Unknown", name -> countedLoad(loads, null));
+        BeerDTO beerDTO = beerCache.get("Unknown", name -> countedLoad(loads, null));
+
+        // THEN
+        assertThat(beerDTO, is(nullValue()));
+        assertThat(loads.get(), is(2));
+    }
+
+    private BeerDTO countedLoad(AtomicInteger loads, BeerDTO beerDTO) {
+        loads.incrementAndGet();
+        return beerDTO;
+    }
+}
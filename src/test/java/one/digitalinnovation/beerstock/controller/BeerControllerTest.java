@@ -2,11 +2,39 @@ package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.dto.BeerDTO;
 import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.SparseBeerDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockStatsDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementDTO;
+import one.digitalinnovation.beerstock.dto.StockMovementPageDTO;
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+import one.digitalinnovation.beerstock.dto.BeerBulkDTO;
+import one.digitalinnovation.beerstock.dto.BeerCreationResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerCreationStatus;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.StockLedgerService;
+import one.digitalinnovation.beerstock.etag.BeerETags;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.stream.BeerChangeStream;
+import one.digitalinnovation.beerstock.stats.BeerStockStats;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,20 +42,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.InjectMocks;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.time.Instant;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.hamcrest.Matchers.*;
 import static one.digitalinnovation.beerstock.utils.JSONCovertUtils.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,12 +79,28 @@ public class BeerControllerTest {
     private static final long INVALID_BEER_ID = 2L;
     private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
     private static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
+    private static final String BEER_API_SUBPATH_STOCK_URL = "/stock";
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private BeerExportService beerExportService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Spy
+    private BeerETags beerETags = new BeerETags();
+
+    @Mock
+    private BeerChangeStream beerChangeStream;
+
+    @Mock
+    private BeerStockStats beerStockStats;
+
     @InjectMocks
     private BeerController beerController;
 
@@ -91,6 +147,49 @@ public class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPOSTBulkIsCalledThenEachCreationResultIsReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerBulkDTO beerBulkDTO = new BeerBulkDTO(Collections.singletonList(beerDTO));
+
+        BeerCreationResultDTO result = BeerCreationResultDTO.builder()
+                .name(beerDTO.getName())
+                .status(BeerCreationStatus.CREATED)
+                .beer(beerDTO)
+                .build();
+
+        // WHEN
+        when(beerService.createBeers(beerBulkDTO.getBeers()))
+                .thenReturn(Collections.singletonList(result));
+
+        // THEN
+        mockMvc.perform(post(BEER_API_URL_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJSONString(beerBulkDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].status", is(BeerCreationStatus.CREATED.toString())))
+                .andExpect(jsonPath("$[0].beer.brand", is(beerDTO.getBrand())));
+    }
+
+    @Test
+    void whenPOSTBulkIsCalledWithAnInvalidBeerThenAnErrorIsReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand(null);
+
+        // THEN
+        mockMvc.perform(post(BEER_API_URL_PATH + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJSONString(new BeerBulkDTO(Collections.singletonList(beerDTO)))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenGETIsCalledWithValidNameThenOKStatusIsReturned()
             throws Exception {
@@ -110,6 +209,99 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledWithMatchingETagThenNotModifiedStatusIsReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String eTag = beerETags.forBeer(beerDTO);
+
+        // WHEN
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void whenGETIsCalledWithTheServedETagThenTheBeerIsNotLoadedAgain()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String eTag = beerETags.forBeer(beerDTO);
+
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName().toUpperCase())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        verify(beerService, times(1)).findByName(anyString());
+    }
+
+    @Test
+    void whenTheBeerChangesAfterItsETagWasServedThenItIsLoadedAgain()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String staleETag = beerETags.forBeer(beerDTO);
+
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // WHEN
+        beerDTO.setQuantity(beerDTO.getQuantity() + 1);
+        beerETags.onBeerChanged(new BeerChangedEvent(BeerChangedEvent.Type.STOCK_CHANGED, beerDTO, 1L));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, staleETag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+
+        verify(beerService, times(2)).findByName(beerDTO.getName());
+    }
+
+    @Test
+    void whenGETIsCalledWithStaleETagThenTheBeerIsReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String staleETag = beerETags.forBeer(beerDTO);
+        beerDTO.setQuantity(beerDTO.getQuantity() + 1);
+
+        // WHEN
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, staleETag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, beerETags.forBeer(beerDTO)))
+                .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+    }
+
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned()
             throws Exception {
@@ -135,8 +327,8 @@ public class BeerControllerTest {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
         // WHEN
-        when(beerService.listAll())
-                .thenReturn(Collections.singletonList(beerDTO));
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
 
         // THEN
         mockMvc.perform(get(BEER_API_URL_PATH)
@@ -147,18 +339,334 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETListBeersIsCalledWithFieldsThenOnlyThoseFieldsAreReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = new SparseBeerDTO();
+        beerDTO.setId(VALID_BEER_ID);
+        beerDTO.setName("Brahma");
+
+        // WHEN
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, "id,name"))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("fields", "id,name")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].brand").doesNotExist())
+                .andExpect(jsonPath("$[0].quantity").doesNotExist());
+    }
+
+    @Test
+    void whenGETListBeersIsCalledWithoutFieldsThenNullFieldsAreStillReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTO.builder().id(VALID_BEER_ID).name("Brahma").build();
+
+        // WHEN
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"brand\":null")));
+    }
+
+    @Test
+    void whenGETListBeersIsCalledWithAnUnknownFieldThenABadRequestStatusIsReturned()
+            throws Exception {
+
+        // WHEN
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, "reserved"))
+                .thenThrow(UnknownBeerFieldException.class);
+
+        // THROW
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("fields", "reserved")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenGETListWithoutBeersIsCalledThenOKStatusIsReturned()
             throws Exception {
 
         // WHEN
-        when(beerService.listAll())
-                .thenReturn(Collections.EMPTY_LIST);
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenReturn(new BeerPageDTO(Collections.EMPTY_LIST, null));
 
         // THEN
         mockMvc.perform(get(BEER_API_URL_PATH)
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BeerController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void whenGETListBeersHasMorePagesThenNextCursorHeaderIsReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String nextCursor = "next-page";
+
+        // WHEN
+        when(beerService.listAll("current-page", 1, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), nextCursor));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("after", "current-page")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BeerController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void whenGETListBeersIsCalledWithMatchingETagThenTheServiceIsNotCalled()
+            throws Exception {
+
+        // GIVEN
+        String eTag = beerETags.forPage(null, BeerService.DEFAULT_PAGE_SIZE, null);
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETListBeersIsCalledAfterACatalogChangeThenTheETagChanges()
+            throws Exception {
+
+        // GIVEN
+        String staleETag = beerETags.forPage(null, BeerService.DEFAULT_PAGE_SIZE, null);
+        beerETags.onBeerChanged(new BeerChangedEvent(BeerChangedEvent.Type.STOCK_CHANGED,
+                BeerDTOBuilder.builder().build().toBeerDTO(), 1L));
+
+        // WHEN
+        when(beerService.listAll(null, BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenReturn(new BeerPageDTO(Collections.EMPTY_LIST, null));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, staleETag)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(staleETag)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenFiltersAreBoundAndMatchingBeersReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerSearchDTO criteria = BeerSearchDTO.builder()
+                .type(BeerType.LAGER)
+                .brand(beerDTO.getBrand())
+                .minQuantity(1)
+                .maxQuantity(20)
+                .lowStock(0.25)
+                .build();
+
+        // WHEN
+        when(beerService.search(criteria, null, BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/search")
+                .param("type", "LAGER")
+                .param("brand", beerDTO.getBrand())
+                .param("minQuantity", "1")
+                .param("maxQuantity", "20")
+                .param("lowStock", "0.25")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETSearchIsCalledWithInvalidLowStockThenBadRequestStatusIsReturned()
+            throws Exception {
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/search")
+                .param("lowStock", "1.5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETLowStockIsCalledThenTheEmptiestBeersAreReturned()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(1).build().toBeerDTO();
+
+        // WHEN
+        when(beerService.findLowStock(5)).thenReturn(Collections.singletonList(beerDTO));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/low-stock")
+                .param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].quantity", is(1)));
+    }
+
+    @Test
+    void whenGETAutocompleteIsCalledThenMatchingNamesAreReturned()
+            throws Exception {
+
+        // WHEN
+        when(beerService.autocomplete("br", BeerService.DEFAULT_AUTOCOMPLETE_SIZE))
+                .thenReturn(Arrays.asList("Brahma", "Brahma Extra"));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/autocomplete")
+                .param("prefix", "br")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains("Brahma", "Brahma Extra")));
+    }
+
+    @Test
+    void whenGETStatsIsCalledThenTotalsPerTypeAndBrandAreReturned()
+            throws Exception {
+
+        // GIVEN
+        StockTotalsDTO lager = new StockTotalsDTO(BeerType.LAGER.name(), 2, 30, 120, 25.0);
+        StockTotalsDTO ambev = new StockTotalsDTO("Ambev", 2, 30, 120, 25.0);
+
+        // WHEN
+        when(beerStockStats.snapshot()).thenReturn(new BeerStockStatsDTO(
+                Collections.singletonList(lager), Collections.singletonList(ambev)));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/stats")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byType[0].group", is("LAGER")))
+                .andExpect(jsonPath("$.byType[0].fillPercentage", is(25.0)))
+                .andExpect(jsonPath("$.byBrand[0].group", is("Ambev")))
+                .andExpect(jsonPath("$.byBrand[0].quantity", is(30)));
+    }
+
+    @Test
+    void whenGETMovementsIsCalledThenTheStockHistoryIsReturned()
+            throws Exception {
+
+        // GIVEN
+        StockMovementDTO movement = StockMovementDTO.builder()
+                .id(1L)
+                .beerId(VALID_BEER_ID)
+                .delta(-2)
+                .resultingQuantity(8)
+                .reason(StockMovementReason.DECREMENT)
+                .occurredAt(Instant.parse("2021-06-20T10:15:30Z"))
+                .build();
+
+        // WHEN
+        when(stockLedgerService.findMovements(VALID_BEER_ID, null, BeerService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new StockMovementPageDTO(Collections.singletonList(movement), "next-page"));
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/movements")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BeerController.NEXT_CURSOR_HEADER, "next-page"))
+                .andExpect(jsonPath("$[0].delta", is(-2)))
+                .andExpect(jsonPath("$[0].resultingQuantity", is(8)))
+                .andExpect(jsonPath("$[0].reason", is("DECREMENT")))
+                .andExpect(jsonPath("$[0].occurredAt", is(notNullValue())));
+    }
+
+    @Test
+    void whenGETListBeersIsCalledWithInvalidCursorThenBadRequestStatusIsReturned()
+            throws Exception {
+
+        // WHEN
+        when(beerService.listAll("broken", BeerService.DEFAULT_PAGE_SIZE, null))
+                .thenThrow(InvalidCursorException.class);
+
+        // THEN
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                .param("after", "broken")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETExportIsCalledThenBeersAreStreamedAsNDJSON()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String exportedLine = asJSONString(beerDTO) + "\n";
+
+        // WHEN
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write(exportedLine.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(beerExportService).exportAll(any(OutputStream.class));
+
+        // THEN
+        MvcResult result = mockMvc.perform(get(BEER_API_URL_PATH + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(exportedLine));
+    }
+
+    @Test
+    void whenGETChangesIsCalledThenBeerChangesAreStreamedAsServerSentEvents()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        SseEmitter emitter = new SseEmitter();
+
+        // WHEN
+        when(beerChangeStream.subscribe()).thenReturn(emitter);
+
+        // THEN
+        MvcResult result = mockMvc.perform(get(BEER_API_URL_PATH + "/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        emitter.send(SseEmitter.event()
+                .name("stock_changed")
+                .data(beerDTO, MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:stock_changed")))
+                .andExpect(content().string(containsString("\"name\":\"" + beerDTO.getName() + "\"")));
     }
 
     @Test
@@ -204,7 +712,7 @@ public class BeerControllerTest {
         incrementedBeerDTO.setQuantity(incrementedBeerDTO.getQuantity() + quatityDTO.getQuantity());
 
         // WHEN
-        when(beerService.increment(incrementedBeerDTO.getId(), quatityDTO.getQuantity()))
+        when(beerService.increment(incrementedBeerDTO.getId(), quatityDTO.getQuantity(), null))
                 .thenReturn(incrementedBeerDTO);
 
         // THEN
@@ -232,7 +740,7 @@ public class BeerControllerTest {
         expectedBeerDTO.setQuantity(expectedBeerDTO.getQuantity() + quatityDTO.getQuantity());
 
         // WHEN
-        when(beerService.increment(VALID_BEER_ID, quatityDTO.getQuantity()))
+        when(beerService.increment(VALID_BEER_ID, quatityDTO.getQuantity(), null))
                 .thenThrow(BeerStockExceededException.class);
 
         // THROW
@@ -243,6 +751,109 @@ public class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPATCHIsCalledWithAnIdempotencyKeyThenTheKeyIsPassedToTheService()
+            throws Exception {
+
+        // GIVEN
+        QuatityDTO quatityDTO = QuatityDTO.builder()
+                .quantity(10)
+                .build();
+
+        BeerDTO incrementedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // WHEN
+        when(beerService.increment(VALID_BEER_ID, quatityDTO.getQuantity(), "scan-1"))
+                .thenReturn(incrementedBeerDTO);
+
+        // THEN
+        mockMvc.perform(
+                patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+                        .header(BeerController.IDEMPOTENCY_KEY_HEADER, "scan-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJSONString(quatityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(incrementedBeerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveThenCreatedStatusIsReturned()
+            throws Exception {
+
+        // GIVEN
+        QuatityDTO quatityDTO = QuatityDTO.builder()
+                .quantity(3)
+                .build();
+
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .id(7L)
+                .beerId(VALID_BEER_ID)
+                .quantity(quatityDTO.getQuantity())
+                .expiresAt(Instant.now())
+                .build();
+
+        // WHEN
+        when(beerService.reserve(VALID_BEER_ID, quatityDTO.getQuantity()))
+                .thenReturn(reservationDTO);
+
+        // THEN
+        mockMvc.perform(
+                post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJSONString(quatityDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.quantity", is(quatityDTO.getQuantity())));
+    }
+
+    @Test
+    void whenDELETEIsCalledWithAnUnknownReservationThenNotFoundStatusIsReturned()
+            throws Exception {
+
+        // WHEN
+        doThrow(ReservationNotFoundException.class).when(beerService).releaseReservation(7L);
+
+        // THROW
+        mockMvc.perform(delete(BEER_API_URL_PATH + "/reservations/7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenConfirmIsCalledUnderAStrategyWithoutReservationsThenNotImplementedStatusIsReturned()
+            throws Exception {
+
+        // WHEN
+        when(beerService.confirmReservation(7L)).thenThrow(ReservationsUnsupportedException.class);
+
+        // THROW
+        mockMvc.perform(post(BEER_API_URL_PATH + "/reservations/7/confirm")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Test
+    void whenPATCHReusesAnIdempotencyKeyForAnotherRequestThenUnprocessableEntityStatusIsReturned()
+            throws Exception {
+
+        // GIVEN
+        QuatityDTO quatityDTO = QuatityDTO.builder()
+                .quantity(10)
+                .build();
+
+        // WHEN
+        when(beerService.decrement(VALID_BEER_ID, quatityDTO.getQuantity(), "scan-1"))
+                .thenThrow(IdempotencyKeyReusedException.class);
+
+        // THROW
+        mockMvc.perform(
+                patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                        .header(BeerController.IDEMPOTENCY_KEY_HEADER, "scan-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJSONString(quatityDTO)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void whenPATCHIsCalledToDecrementThenOKStatusIsReturned()
             throws Exception {
@@ -256,7 +867,7 @@ public class BeerControllerTest {
         decrementedBeerDTO.setQuantity(decrementedBeerDTO.getQuantity() - quatityDTO.getQuantity());
 
         // WHEN
-        when(beerService.decrement(decrementedBeerDTO.getId(), quatityDTO.getQuantity()))
+        when(beerService.decrement(decrementedBeerDTO.getId(), quatityDTO.getQuantity(), null))
                 .thenReturn(decrementedBeerDTO);
 
         // THEN
@@ -284,7 +895,7 @@ public class BeerControllerTest {
         expectedBeerDTO.setQuantity(expectedBeerDTO.getQuantity() - quatityDTO.getQuantity());
 
         // WHEN
-        when(beerService.decrement(VALID_BEER_ID, quatityDTO.getQuantity()))
+        when(beerService.decrement(VALID_BEER_ID, quatityDTO.getQuantity(), null))
                 .thenThrow(BeerStockNegativeException.class);
 
         // THROW
@@ -295,4 +906,47 @@ public class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPATCHIsCalledWithStockAdjustmentsThenEachResultIsReturned()
+            throws Exception {
+
+        // GIVEN
+        StockAdjustmentDTO adjustment = new StockAdjustmentDTO(VALID_BEER_ID, 5);
+        StockAdjustmentBatchDTO batchDTO = new StockAdjustmentBatchDTO(Collections.singletonList(adjustment));
+
+        StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                .id(VALID_BEER_ID)
+                .delta(5)
+                .status(StockAdjustmentStatus.APPLIED)
+                .quantity(15)
+                .build();
+
+        // WHEN
+        when(beerService.adjustStock(batchDTO.getAdjustments()))
+                .thenReturn(Collections.singletonList(result));
+
+        // THEN
+        mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJSONString(batchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is((int) VALID_BEER_ID)))
+                .andExpect(jsonPath("$[0].status", is(StockAdjustmentStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$[0].quantity", is(15)));
+    }
+
+    @Test
+    void whenPATCHIsCalledWithoutStockAdjustmentsThenABadRequestStatusIsReturned()
+            throws Exception {
+
+        // GIVEN
+        StockAdjustmentBatchDTO batchDTO = new StockAdjustmentBatchDTO(Collections.emptyList());
+
+        // THROW
+        mockMvc.perform(patch(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJSONString(batchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
 }
@@ -0,0 +1,111 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+public class IdempotencyStoreTest {
+
+    private static final String KEY = "scan-1";
+    private static final String FINGERPRINT = "increment:1:10";
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(new IdempotencyProperties(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void whenADuplicateArrivesWhileTheFirstRequestIsInFlightThenItWaitsForItsResult()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        IdempotencyStore.Claim claim = idempotencyStore.claim(KEY, FINGERPRINT);
+        assertThat(claim.getReplayed(), is(Optional.empty()));
+
+        // WHEN
+        CompletableFuture<Optional<BeerDTO>> duplicate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return idempotencyStore.claim(KEY, FINGERPRINT).getReplayed();
+            } catch(Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(50);
+        assertThat(duplicate.isDone(), is(false));
+
+        idempotencyStore.complete(claim, beerDTO);
+        idempotencyStore.release(claim);
+
+        // THEN
+        assertThat(duplicate.get(5, TimeUnit.SECONDS), is(Optional.of(beerDTO)));
+    }
+
+    @Test
+    void whenTheFirstRequestFailsThenAWaitingDuplicateClaimsTheKey()
+            throws Exception {
+
+        // GIVEN
+        IdempotencyStore.Claim claim = idempotencyStore.claim(KEY, FINGERPRINT);
+        assertThat(claim.getReplayed(), is(Optional.empty()));
+
+        // WHEN
+        CompletableFuture<Optional<BeerDTO>> duplicate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return idempotencyStore.claim(KEY, FINGERPRINT).getReplayed();
+            } catch(Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(50);
+        idempotencyStore.release(claim);
+
+        // THEN
+        assertThat(duplicate.get(5, TimeUnit.SECONDS), is(Optional.empty()));
+    }
+
+    @Test
+    void whenAnEarlierClaimIsReleasedAgainThenTheNewerClaimKeepsTheKey()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        IdempotencyStore.Claim failedClaim = idempotencyStore.claim(KEY, FINGERPRINT);
+        idempotencyStore.release(failedClaim);
+
+        IdempotencyStore.Claim retryClaim = idempotencyStore.claim(KEY, FINGERPRINT);
+
+        // WHEN
+        idempotencyStore.release(failedClaim);
+        idempotencyStore.complete(retryClaim, beerDTO);
+
+        // THEN
+        assertThat(idempotencyStore.claim(KEY, FINGERPRINT).getReplayed(), is(Optional.of(beerDTO)));
+    }
+
+    @Test
+    void whenNoKeyIsGivenThenNothingIsRecorded()
+            throws Exception {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // WHEN
+        IdempotencyStore.Claim claim = idempotencyStore.claim(null, FINGERPRINT);
+        idempotencyStore.complete(claim, beerDTO);
+        idempotencyStore.release(claim);
+
+        // THEN
+        assertThat(idempotencyStore.claim(null, FINGERPRINT).getReplayed(), is(Optional.empty()));
+    }
+}
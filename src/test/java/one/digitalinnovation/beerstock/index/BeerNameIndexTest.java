@@ -0,0 +1,121 @@
+package one.digitalinnovation.beerstock.index;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerNameIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final IndexProperties indexProperties = new IndexProperties();
+
+    private BeerNameIndex beerNameIndex;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        beerNameIndex = new BeerNameIndex(beerRepository, entityManager, indexProperties);
+    }
+
+    @Test
+    void whenAPrefixIsGivenThenMatchingNamesAreReturnedAlphabeticallyIgnoringCase() {
+
+        // GIVEN
+        Beer brahma = beer(1L, "Brahma");
+        Beer brahmaExtra = beer(2L, "Brahma Extra");
+        Beer bohemia = beer(3L, "Bohemia");
+        Beer brooklyn = beer(4L, "brooklyn Lager");
+
+        // WHEN
+        when(beerRepository.streamAll()).thenReturn(Stream.of(brooklyn, brahmaExtra, bohemia, brahma));
+        beerNameIndex.rebuild();
+
+        // THEN
+        assertThat(beerNameIndex.complete("BR", 10), contains("Brahma", "Brahma Extra", "brooklyn Lager"));
+        assertThat(beerNameIndex.complete("b", 2), contains("Bohemia", "Brahma"));
+        assertThat(beerNameIndex.complete("skol", 10), is(empty()));
+        verify(entityManager, times(4)).detach(any(Beer.class));
+    }
+
+    @Test
+    void whenABeerIsDeletedThenItsNameIsNoLongerSuggested() {
+
+        // GIVEN
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Brahma"), 0L));
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Brahma Extra"), 0L));
+
+        // WHEN
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(2L, "Brahma Extra"), 0L));
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(2L, "Brahma Extra"), 1L));
+
+        // THEN
+        assertThat(beerNameIndex.complete("brahma", 10), is(Collections.singletonList("Brahma")));
+        assertThat(beerNameIndex.size(), is(1));
+    }
+
+    @Test
+    void whenATombstoneOutlivesItsTtlThenItIsPurged() {
+
+        // GIVEN
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Brahma"), 0L));
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Skol"), 0L));
+        beerNameIndex.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(1L, "Brahma"), 0L));
+
+        // WHEN
+        beerNameIndex.purgeTombstones();
+        int trackedWithinTtl = beerNameIndex.tracked();
+
+        indexProperties.setTombstoneTtl(Duration.ZERO);
+        beerNameIndex.purgeTombstones();
+
+        // THEN
+        assertThat(trackedWithinTtl, is(2));
+        assertThat(beerNameIndex.tracked(), is(1));
+        assertThat(beerNameIndex.complete("", 10), is(Collections.singletonList("Skol")));
+    }
+
+    private Beer beer(Long id, String name) {
+        Beer beer = beerMapper.toModel(dto(id, name));
+        beer.setVersion(0L);
+        return beer;
+    }
+
+    private BeerDTO dto(Long id, String name) {
+        return BeerDTOBuilder.builder()
+                .id(id)
+                .name(name)
+                .build()
+                .toBeerDTO();
+    }
+
+    private BeerChangedEvent event(BeerChangedEvent.Type type, BeerDTO beerDTO, Long version) {
+        return new BeerChangedEvent(type, beerDTO, version);
+    }
+}
@@ -0,0 +1,157 @@
+package one.digitalinnovation.beerstock.index;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final IndexProperties indexProperties = new IndexProperties();
+
+    private LowStockIndex lowStockIndex;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        lowStockIndex = new LowStockIndex(beerRepository, entityManager, indexProperties);
+    }
+
+    @Test
+    void whenTheIndexIsRebuiltThenBeersAreOrderedByFillRatio() {
+
+        // GIVEN
+        Beer half = beer(1L, "Brahma", 50, 25);
+        Beer empty = beer(2L, "Skol", 10, 0);
+        Beer full = beer(3L, "Bohemia", 20, 20);
+
+        // WHEN
+        when(beerRepository.streamAll()).thenReturn(Stream.of(half, empty, full));
+        lowStockIndex.rebuild();
+
+        // THEN
+        assertThat(names(lowStockIndex.lowest(10)), contains("Skol", "Brahma", "Bohemia"));
+        assertThat(names(lowStockIndex.lowest(2)), contains("Skol", "Brahma"));
+        verify(entityManager, times(3)).detach(any(Beer.class));
+    }
+
+    @Test
+    void whenABeerChangesThenItIsRepositioned() {
+
+        // GIVEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Brahma", 50, 10), 0L));
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Skol", 50, 20), 0L));
+
+        // WHEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Brahma", 50, 40), 1L));
+
+        // THEN
+        assertThat(names(lowStockIndex.lowest(10)), contains("Skol", "Brahma"));
+    }
+
+    @Test
+    void whenAnOlderEventArrivesLateThenItIsIgnored() {
+
+        // GIVEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Brahma", 50, 40), 2L));
+
+        // WHEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Brahma", 50, 5), 1L));
+
+        // THEN
+        List<BeerDTO> beers = lowStockIndex.lowest(10);
+
+        assertThat(beers, hasSize(1));
+        assertThat(beers.get(0).getQuantity(), is(40));
+    }
+
+    @Test
+    void whenABeerIsDeletedThenItIsRemovedAndLateUpdatesAreIgnored() {
+
+        // GIVEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Brahma", 50, 10), 0L));
+
+        // WHEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(1L, "Brahma", 50, 10), 0L));
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Brahma", 50, 11), 1L));
+
+        // THEN
+        assertThat(lowStockIndex.lowest(10), is(empty()));
+    }
+
+    @Test
+    void whenATombstoneOutlivesItsTtlThenItIsPurged() {
+
+        // GIVEN
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Brahma", 50, 10), 0L));
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Skol", 50, 20), 0L));
+        lowStockIndex.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(1L, "Brahma", 50, 10), 0L));
+
+        // WHEN
+        lowStockIndex.purgeTombstones();
+        int trackedWithinTtl = lowStockIndex.tracked();
+
+        indexProperties.setTombstoneTtl(Duration.ZERO);
+        lowStockIndex.purgeTombstones();
+
+        // THEN
+        assertThat(trackedWithinTtl, is(2));
+        assertThat(lowStockIndex.tracked(), is(1));
+        assertThat(names(lowStockIndex.lowest(10)), is(Collections.singletonList("Skol")));
+    }
+
+    private Beer beer(Long id, String name, int max, int quantity) {
+        Beer beer = beerMapper.toModel(dto(id, name, max, quantity));
+        beer.setVersion(0L);
+        return beer;
+    }
+
+    private BeerDTO dto(Long id, String name, int max, int quantity) {
+        return BeerDTOBuilder.builder()
+                .id(id)
+                .name(name)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+    }
+
+    private BeerChangedEvent event(BeerChangedEvent.Type type, BeerDTO beerDTO, Long version) {
+        return new BeerChangedEvent(type, beerDTO, version);
+    }
+
+    private List<String> names(List<BeerDTO> beers) {
+        return beers.stream()
+                .map(BeerDTO::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,119 @@
+package one.digitalinnovation.beerstock.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.util.List;
+import java.util.Collections;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+public class StockJournalTest {
+
+    private static final int CAPACITY = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenTheJournalIsReopenedThenAppendedRecordsAreRecovered()
+            throws Exception {
+
+        // GIVEN
+        Path file = directory.resolve("stock.journal");
+
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            journal.recover(0);
+            journal.append(1L, 10, 1L);
+            journal.append(2L, 20, 1L);
+        }
+
+        // WHEN
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            List<StockRecord> records = journal.recover(0);
+
+            // THEN
+            assertThat(records, hasSize(2));
+            assertThat(records.get(1).getBeerId(), is(2L));
+            assertThat(records.get(1).getQuantity(), is(20));
+            assertThat(journal.append(1L, 11, 2L), is(3L));
+        }
+    }
+
+    @Test
+    void whenARecordIsTornThenRecoveryStopsBeforeIt()
+            throws Exception {
+
+        // GIVEN
+        Path file = directory.resolve("stock.journal");
+
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            journal.recover(0);
+            journal.append(1L, 10, 1L);
+            journal.append(1L, 11, 2L);
+        }
+
+        try(RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(StockJournal.RECORD_SIZE + 16);
+            raw.writeInt(99);
+        }
+
+        // WHEN
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            List<StockRecord> records = journal.recover(0);
+
+            // THEN
+            assertThat(records, hasSize(1));
+            assertThat(records.get(0).getQuantity(), is(10));
+        }
+    }
+
+    @Test
+    void whenANewGenerationStartsThenStaleRecordsAreNotReplayed()
+            throws Exception {
+
+        // GIVEN
+        Path file = directory.resolve("stock.journal");
+
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            journal.recover(0);
+            journal.append(1L, 10, 1L);
+            journal.append(1L, 11, 2L);
+            journal.append(1L, 12, 3L);
+
+            journal.reset();
+            journal.append(1L, 13, 4L);
+        }
+
+        // WHEN
+        try(StockJournal journal = new StockJournal(file, CAPACITY, false)) {
+            List<StockRecord> records = journal.recover(3);
+
+            // THEN
+            assertThat(records, hasSize(1));
+            assertThat(records.get(0).getSequence(), is(4L));
+            assertThat(records.get(0).getQuantity(), is(13));
+        }
+    }
+
+    @Test
+    void whenASnapshotIsWrittenThenItIsReadBack()
+            throws Exception {
+
+        // GIVEN
+        Path file = directory.resolve("stock.snapshot");
+        StockSnapshot snapshot = new StockSnapshot(7L, Collections.singletonList(new StockRecord(0, 1L, 15, 3L)));
+
+        // WHEN
+        snapshot.writeTo(file);
+        StockSnapshot readBack = StockSnapshot.readFrom(file).orElseThrow(IllegalStateException::new);
+
+        // THEN
+        assertThat(readBack.getSequence(), is(7L));
+        assertThat(readBack.getStocks().get(0).getQuantity(), is(15));
+        assertThat(readBack.getStocks().get(0).getVersion(), is(3L));
+    }
+}
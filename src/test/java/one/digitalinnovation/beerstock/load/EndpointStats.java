@@ -0,0 +1,104 @@
+package one.digitalinnovation.beerstock.load;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies and outcomes of the calls one client made to one endpoint.
+ * Not thread-safe: every client records into its own instances, which are
+ * merged once the run is over.
+ */
+class EndpointStats {
+
+    private final String endpoint;
+
+    private long[] latenciesNanos = new long[1024];
+    private int calls;
+
+    private int succeeded;
+    private int rejected;
+    private int conflicts;
+    private int errors;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long latencyNanos) {
+        if(calls == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, calls * 2);
+        }
+
+        latenciesNanos[calls++] = latencyNanos;
+
+        if(status == HttpStatus.OK.value()) {
+            succeeded++;
+        } else if(status == HttpStatus.BAD_REQUEST.value()) {
+            rejected++;
+        } else if(status == HttpStatus.CONFLICT.value()) {
+            conflicts++;
+        } else {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStats other) {
+        latenciesNanos = Arrays.copyOf(latenciesNanos, calls + other.calls);
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, calls, other.calls);
+        calls += other.calls;
+
+        succeeded += other.succeeded;
+        rejected += other.rejected;
+        conflicts += other.conflicts;
+        errors += other.errors;
+    }
+
+    int getCalls() {
+        return calls;
+    }
+
+    int getErrors() {
+        return errors;
+    }
+
+    /**
+     * One report line: throughput over the whole run, latency percentiles
+     * and the share of calls per outcome. Rejected calls hit the stock
+     * limits (400), conflicts ran out of retries (409), errors are anything
+     * else.
+     */
+    String report(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, calls);
+        Arrays.sort(sorted);
+
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        return String.format(Locale.ROOT,
+                "%-10s %8d calls %10.1f req/s   p50 %8.1f us   p99 %8.1f us   p999 %8.1f us   " +
+                        "rejected %5.1f%%   conflicts %5.1f%%   errors %5.1f%%",
+                endpoint, calls, calls / seconds,
+                micros(percentile(sorted, 0.50)), micros(percentile(sorted, 0.99)), micros(percentile(sorted, 0.999)),
+                share(rejected), share(conflicts), share(errors));
+    }
+
+    private double share(int count) {
+        return calls == 0 ? 0 : 100.0 * count / calls;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if(sorted.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(fraction * sorted.length);
+
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,218 @@
+package one.digitalinnovation.beerstock.load;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuatityDTO;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.StockUpdateStrategy;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.ClassUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static one.digitalinnovation.beerstock.utils.JSONCovertUtils.asJSONString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+/**
+ * Drives {@code PATCH /{id}/increment} and {@code /decrement} from many
+ * concurrent clients through the whole Spring context and embedded H2, then
+ * prints throughput, latency percentiles and outcome rates per endpoint and
+ * checks that every beer ends with its initial stock plus the changes that
+ * were answered 200.
+ *
+ * <p>Excluded from the regular build; run it with
+ * {@code mvn -Ploadtest test}. The load is tuned with system properties:
+ * {@code loadtest.clients}, {@code loadtest.calls-per-client},
+ * {@code loadtest.beers}, {@code loadtest.hot-fraction} (share of calls
+ * sent to the hot beer in the hot-key run) and {@code loadtest.quantity}.
+ * Any application property can be set the same way, e.g.
+ * {@code -Dbeerstock.stock.strategy=group-commit}.</p>
+ *
+ * <p>Requests go through MockMvc rather than a socket, so the numbers
+ * cover the dispatcher, the service and the database but not the
+ * container's connection handling.</p>
+ */
+@Tag("load")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StockMutationLoadTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 16);
+    private static final int CALLS_PER_CLIENT = Integer.getInteger("loadtest.calls-per-client", 500);
+    private static final int BEERS = Integer.getInteger("loadtest.beers", 50);
+    private static final double HOT_FRACTION = Double.parseDouble(System.getProperty("loadtest.hot-fraction", "0.9"));
+    private static final int QUANTITY = Integer.getInteger("loadtest.quantity", 1);
+
+    private static final int MAX = 100_000;
+    private static final int INITIAL_QUANTITY = MAX / 2;
+
+    enum Distribution {
+
+        /** {@link #HOT_FRACTION} of the calls go to the first beer, the rest spread over the others. */
+        HOT_KEY,
+
+        /** Every beer is equally likely. */
+        UNIFORM;
+
+        int pick(ThreadLocalRandom random) {
+            if(this == UNIFORM || BEERS == 1) {
+                return random.nextInt(BEERS);
+            }
+
+            return random.nextDouble() < HOT_FRACTION ? 0 : 1 + random.nextInt(BEERS - 1);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private StockUpdateStrategy stockUpdateStrategy;
+
+    private final List<BeerDTO> beers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for(BeerDTO beer : beers) {
+            beerService.deleteById(beer.getId());
+        }
+
+        beers.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Distribution.class)
+    void whenManyClientsChangeTheStockThenNoChangeIsLost(Distribution distribution)
+            throws Exception {
+
+        // GIVEN
+        for(int i = 0; i < BEERS; i++) {
+            beers.add(beerService.createBeer(BeerDTOBuilder.builder()
+                    .id(null)
+                    .name("Load test beer " + i)
+                    .max(MAX)
+                    .quantity(INITIAL_QUANTITY)
+                    .build()
+                    .toBeerDTO()));
+        }
+
+        // WHEN
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Client>> clients = new ArrayList<>();
+
+        for(int i = 0; i < CLIENTS; i++) {
+            clients.add(executor.submit(() -> {
+                Client client = new Client();
+                start.await();
+                client.run(distribution);
+
+                return client;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+
+        Client total = new Client();
+
+        for(Future<Client> client : clients) {
+            total.merge(client.get());
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        // THEN
+        System.out.printf("%n%s: %d clients x %d calls over %d beers, strategy %s%n", distribution,
+                CLIENTS, CALLS_PER_CLIENT, BEERS, ClassUtils.getUserClass(stockUpdateStrategy).getSimpleName());
+        System.out.println(total.increments.report(elapsedNanos));
+        System.out.println(total.decrements.report(elapsedNanos));
+
+        assertThat(total.increments.getErrors(), is(0));
+        assertThat(total.decrements.getErrors(), is(0));
+        assertThat(total.increments.getCalls() + total.decrements.getCalls(), is(CLIENTS * CALLS_PER_CLIENT));
+
+        for(int i = 0; i < BEERS; i++) {
+            int quantity = currentQuantity(beers.get(i));
+
+            assertThat(quantity, is(INITIAL_QUANTITY + total.appliedDeltas[i]));
+            assertThat(quantity, is(both(greaterThanOrEqualTo(0)).and(lessThanOrEqualTo(MAX))));
+        }
+    }
+
+    /**
+     * Read through the service, which reports the stock of strategies that
+     * keep it outside the table.
+     */
+    private int currentQuantity(BeerDTO beer) throws Exception {
+        return beerService.findByName(beer.getName()).getQuantity();
+    }
+
+    private class Client {
+
+        private final EndpointStats increments = new EndpointStats("increment");
+        private final EndpointStats decrements = new EndpointStats("decrement");
+        private final int[] appliedDeltas = new int[BEERS];
+
+        private final String body = asJSONString(new QuatityDTO(QUANTITY));
+
+        void run(Distribution distribution) throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for(int i = 0; i < CALLS_PER_CLIENT; i++) {
+                int beer = distribution.pick(random);
+                boolean increment = random.nextBoolean();
+
+                long startedAt = System.nanoTime();
+                int status = mockMvc.perform(patch(BEER_API_URL_PATH + "/" + beers.get(beer).getId()
+                                + (increment ? "/increment" : "/decrement"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                        .andReturn()
+                        .getResponse()
+                        .getStatus();
+                long latencyNanos = System.nanoTime() - startedAt;
+
+                (increment ? increments : decrements).record(status, latencyNanos);
+
+                if(status == HttpStatus.OK.value()) {
+                    appliedDeltas[beer] += increment ? QUANTITY : -QUANTITY;
+                }
+            }
+        }
+
+        void merge(Client other) {
+            increments.merge(other.increments);
+            decrements.merge(other.decrements);
+
+            for(int i = 0; i < BEERS; i++) {
+                appliedDeltas[i] += other.appliedDeltas[i];
+            }
+        }
+    }
+}
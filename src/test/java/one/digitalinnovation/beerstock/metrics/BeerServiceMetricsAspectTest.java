@@ -0,0 +1,173 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.service.AtomicStockUpdateStrategy;
+import one.digitalinnovation.beerstock.service.ReservationTimer;
+import one.digitalinnovation.beerstock.service.ReservationProperties;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.BeerCacheProperties;
+import one.digitalinnovation.beerstock.index.LowStockIndex;
+import one.digitalinnovation.beerstock.index.BeerNameIndex;
+import one.digitalinnovation.beerstock.idempotency.IdempotencyStore;
+import one.digitalinnovation.beerstock.idempotency.IdempotencyProperties;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerSearchRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockBatchRepository;
+import one.digitalinnovation.beerstock.repository.StockReservationRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerServiceMetricsAspectTest {
+
+    private static final long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private BeerStockBatchRepository beerStockBatchRepository;
+
+    @Mock
+    private BeerSearchRepository beerSearchRepository;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private BeerNameIndex beerNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private MeterRegistry meterRegistry;
+
+    private BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        ReservationProperties reservationProperties = new ReservationProperties();
+
+        BeerService target = new BeerService(beerRepository, beerStockBatchRepository, beerSearchRepository,
+                stockReservationRepository, new AtomicStockUpdateStrategy(beerRepository),
+                new BeerCache(new BeerCacheProperties(), meterRegistry), lowStockIndex, beerNameIndex,
+                new IdempotencyStore(new IdempotencyProperties(), meterRegistry),
+                new ReservationTimer(reservationProperties), reservationProperties,
+                eventPublisher, entityManager);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new BeerServiceMetricsAspect(meterRegistry));
+
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenAnOperationSucceedsThenItIsTimedWithSuccessOutcome()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = BeerMapper.INSTANCE.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.decrementStock(VALID_BEER_ID, 1)).thenReturn(1);
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+
+        // THEN
+        beerService.decrement(VALID_BEER_ID, 1);
+
+        assertThat(timerCount("decrement", BeerServiceMetricsAspect.SUCCESS), is(1L));
+    }
+
+    @Test
+    void whenAnOperationRepeatsThenItsTimerIsReused()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = BeerMapper.INSTANCE.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.decrementStock(VALID_BEER_ID, 1)).thenReturn(1);
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+
+        // THEN
+        beerService.decrement(VALID_BEER_ID, 1);
+        beerService.decrement(VALID_BEER_ID, 1);
+
+        assertThat(meterRegistry.get(BeerServiceMetricsAspect.SERVICE_TIMER).timers(), hasSize(1));
+        assertThat(timerCount("decrement", BeerServiceMetricsAspect.SUCCESS), is(2L));
+    }
+
+    @Test
+    void whenStockLimitIsExceededThenOutcomeAndRejectionAreRecorded() {
+
+        // GIVEN
+        Beer beer = BeerMapper.INSTANCE.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.incrementStock(VALID_BEER_ID, 100)).thenReturn(0);
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+
+        // THEN
+        assertThrows(BeerStockExceededException.class,
+                () -> beerService.increment(VALID_BEER_ID, 100));
+
+        assertThat(timerCount("increment", BeerServiceMetricsAspect.EXCEEDED), is(1L));
+        assertThat(meterRegistry.get(BeerServiceMetricsAspect.REJECTIONS_COUNTER)
+                .tag("reason", BeerServiceMetricsAspect.EXCEEDED)
+                .counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenBeerIsNotFoundThenOutcomeIsNotFound() {
+
+        // WHEN
+        when(beerRepository.findByNormalizedName(Beer.normalize("Unknown"))).thenReturn(Optional.empty());
+
+        // THEN
+        assertThrows(BeerNotFoundException.class,
+                () -> beerService.findByName("Unknown"));
+
+        assertThat(timerCount("findByName", BeerServiceMetricsAspect.NOT_FOUND), is(1L));
+    }
+
+    private long timerCount(String method, String outcome) {
+        return meterRegistry.get(BeerServiceMetricsAspect.SERVICE_TIMER)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
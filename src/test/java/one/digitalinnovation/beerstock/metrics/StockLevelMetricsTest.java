@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.stats.BeerStockStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLevelMetricsTest {
+
+    @Mock
+    private BeerStockStats beerStockStats;
+
+    @Test
+    void whenGaugesAreReadThenTheyReportTotalsPerType() {
+
+        // GIVEN
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new StockLevelMetrics(beerStockStats, meterRegistry);
+
+        // WHEN
+        when(beerStockStats.quantityOf(any(BeerType.class))).thenReturn(0L);
+        when(beerStockStats.quantityOf(BeerType.LAGER)).thenReturn(42L);
+
+        // THEN
+        assertThat(gauge(meterRegistry, BeerType.LAGER), is(42.0));
+        assertThat(gauge(meterRegistry, BeerType.IPA), is(0.0));
+    }
+
+    private double gauge(MeterRegistry meterRegistry, BeerType type) {
+        return meterRegistry.get(StockLevelMetrics.STOCK_GAUGE)
+                .tag("type", type.name())
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,143 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import org.hibernate.Session;
+
+import org.springframework.context.annotation.Import;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.EnumSet;
+import javax.persistence.Tuple;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@DataJpaTest
+@Import(BeerSearchRepository.class)
+public class BeerSearchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BeerSearchRepository beerSearchRepository;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        persist("Brahma", "Ambev", BeerType.LAGER, 100, 10);
+        persist("Skol", "Ambev", BeerType.LAGER, 100, 60);
+        persist("Colorado Indica", "Colorado", BeerType.IPA, 50, 5);
+        persist("Guinness", "Diageo", BeerType.STOUT, 40, 30);
+    }
+
+    @Test
+    void whenNoFilterIsGivenThenEveryBeerIsReturnedOrderedById() {
+
+        // WHEN
+        List<Beer> beers = beerSearchRepository.search(new BeerSearchDTO(), 0L, 10);
+
+        // THEN
+        assertThat(names(beers), contains("Brahma", "Skol", "Colorado Indica", "Guinness"));
+    }
+
+    @Test
+    void whenFiltersAreCombinedThenOnlyBeersMatchingAllOfThemAreReturned() {
+
+        // GIVEN
+        BeerSearchDTO criteria = BeerSearchDTO.builder()
+                .type(BeerType.LAGER)
+                .brand("Ambev")
+                .minQuantity(5)
+                .maxQuantity(50)
+                .build();
+
+        // WHEN
+        List<Beer> beers = beerSearchRepository.search(criteria, 0L, 10);
+
+        // THEN
+        assertThat(names(beers), contains("Brahma"));
+    }
+
+    @Test
+    void whenLowStockIsGivenThenBeersBelowThatFractionOfMaxAreReturned() {
+
+        // GIVEN
+        BeerSearchDTO criteria = BeerSearchDTO.builder().lowStock(0.2).build();
+
+        // WHEN
+        List<Beer> beers = beerSearchRepository.search(criteria, 0L, 10);
+
+        // THEN
+        assertThat(names(beers), contains("Brahma", "Colorado Indica"));
+    }
+
+    @Test
+    void whenAfterIdAndLimitAreGivenThenTheNextPageIsReturned() {
+
+        // GIVEN
+        List<Beer> firstPage = beerSearchRepository.search(new BeerSearchDTO(), 0L, 2);
+
+        // WHEN
+        List<Beer> secondPage = beerSearchRepository.search(
+                new BeerSearchDTO(), firstPage.get(1).getId(), 2);
+
+        // THEN
+        assertThat(names(firstPage), contains("Brahma", "Skol"));
+        assertThat(names(secondPage), contains("Colorado Indica", "Guinness"));
+    }
+
+    @Test
+    void whenFieldsAreGivenThenOnlyThoseColumnsAndTheIdAreSelectedWithoutManagingBeers() {
+
+        // GIVEN
+        BeerSearchDTO criteria = BeerSearchDTO.builder().brand("Ambev").build();
+        entityManager.flush();
+        entityManager.clear();
+
+        // WHEN
+        List<Tuple> rows = beerSearchRepository.search(criteria, 0L, 10,
+                EnumSet.of(BeerField.NAME, BeerField.QUANTITY));
+
+        // THEN
+        assertThat(rows, hasSize(2));
+        assertThat(rows.get(0).getElements(), hasSize(3));
+        assertThat(rows.get(0).get("id", Long.class), is(notNullValue()));
+        assertThat(rows.get(0).get("name", String.class), is("Brahma"));
+        assertThat(rows.get(1).get("quantity", Integer.class), is(60));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount(), is(0));
+    }
+
+    private void persist(String name, String brand, BeerType type, int max, int quantity) {
+        entityManager.persist(beerMapper.toModel(BeerDTOBuilder.builder()
+                .id(null)
+                .name(name)
+                .brand(brand)
+                .type(type)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO()));
+    }
+
+    private List<String> names(List<Beer> beers) {
+        return beers.stream()
+                .map(Beer::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,97 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.Arrays;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@DataJpaTest
+@Import(BeerStockBatchRepository.class)
+public class BeerStockBatchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BeerStockBatchRepository beerStockBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Test
+    void whenAdjustmentsAreBatchedThenOnlyThoseWithinLimitsAreApplied() {
+
+        // GIVEN
+        Beer beer = entityManager.persistFlushFind(beerMapper.toModel(
+                BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO()));
+
+        // WHEN
+        int[] updatedRows = beerStockBatchRepository.adjustStock(Arrays.asList(
+                new StockAdjustmentDTO(beer.getId(), 30),
+                new StockAdjustmentDTO(beer.getId(), 20),
+                new StockAdjustmentDTO(beer.getId(), -50),
+                new StockAdjustmentDTO(beer.getId(), -40),
+                new StockAdjustmentDTO(beer.getId() + 1, 1)));
+
+        entityManager.clear();
+
+        // THEN
+        assertThat(updatedRows[0], is(1));
+        assertThat(updatedRows[1], is(0));
+        assertThat(updatedRows[2], is(0));
+        assertThat(updatedRows[3], is(1));
+        assertThat(updatedRows[4], is(0));
+        assertThat(entityManager.find(Beer.class, beer.getId()).getQuantity(), is(0));
+    }
+
+    @Test
+    void whenTheDriverReportsNoRowCountsThenTheOutcomesAreWorkedOutFromTheLockedStock() {
+
+        // GIVEN a driver answering every batched update with SUCCESS_NO_INFO
+        Beer beer = entityManager.persistFlushFind(beerMapper.toModel(
+                BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO()));
+
+        JdbcTemplate noInfoJdbcTemplate = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            int[][] updatedRows = (int[][]) invocation.callRealMethod();
+            Arrays.fill(updatedRows[0], Statement.SUCCESS_NO_INFO);
+            return updatedRows;
+        }).when(noInfoJdbcTemplate).batchUpdate(anyString(), anyList(), anyInt(), any());
+
+        // WHEN
+        int[] updatedRows = new BeerStockBatchRepository(noInfoJdbcTemplate).adjustStock(Arrays.asList(
+                new StockAdjustmentDTO(beer.getId(), 30),
+                new StockAdjustmentDTO(beer.getId(), 20),
+                new StockAdjustmentDTO(beer.getId(), -50),
+                new StockAdjustmentDTO(beer.getId(), -40),
+                new StockAdjustmentDTO(beer.getId() + 1, 1)));
+
+        entityManager.clear();
+
+        // THEN
+        assertThat(updatedRows[0], is(1));
+        assertThat(updatedRows[1], is(0));
+        assertThat(updatedRows[2], is(0));
+        assertThat(updatedRows[3], is(1));
+        assertThat(updatedRows[4], is(0));
+        assertThat(entityManager.find(Beer.class, beer.getId()).getQuantity(), is(0));
+    }
+}
@@ -0,0 +1,193 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class AtomicStockUpdateStrategyTest {
+
+    private static final long INVALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private AtomicStockUpdateStrategy stockUpdateStrategy;
+
+    @Test
+    void whenIncrementIsCalledWithAValidIdThenIncrementBeerStock()
+            throws BeerNotFoundException, BeerStockExceededException {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        int quantityToIncrement = 10;
+        int expectedQuantity = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantity);
+
+        // WHEN
+        when(beerRepository.incrementStock(expectedBeerDTO.getId(), quantityToIncrement))
+                .thenReturn(1);
+
+        when(beerRepository.findById(expectedBeerDTO.getId()))
+                .thenReturn(Optional.of(expectedBeer));
+
+        // THEN
+        Beer incrementedBeer = stockUpdateStrategy.increment(expectedBeerDTO.getId(), quantityToIncrement);
+
+        assertThat(expectedQuantity, equalTo(incrementedBeer.getQuantity()));
+        assertThat(expectedQuantity, lessThan(incrementedBeer.getMax()));
+
+        verify(beerRepository, never()).save(expectedBeer);
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenThrowsAnException() {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        int quantityToIncrement = 80;
+
+        // WHEN
+        when(beerRepository.incrementStock(expectedBeerDTO.getId(), quantityToIncrement))
+                .thenReturn(0);
+
+        when(beerRepository.findById(expectedBeerDTO.getId()))
+                .thenReturn(Optional.of(expectedBeer));
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> stockUpdateStrategy.increment(expectedBeerDTO.getId(), quantityToIncrement));
+    }
+
+    @Test
+    void whenIncrementAfterSumIsGreaterThanMaxThenThrowsAnException() {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        int quantityToIncrement = 41;
+
+        // WHEN
+        when(beerRepository.incrementStock(expectedBeerDTO.getId(), quantityToIncrement))
+                .thenReturn(0);
+
+        when(beerRepository.findById(expectedBeerDTO.getId()))
+                .thenReturn(Optional.of(expectedBeer));
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> stockUpdateStrategy.increment(expectedBeerDTO.getId(), quantityToIncrement));
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenThrowAnException() {
+
+        // GIVEN
+        int quantityToIncrement = 10;
+
+        // WHEN
+        when(beerRepository.incrementStock(INVALID_BEER_ID, quantityToIncrement))
+                .thenReturn(0);
+
+        when(beerRepository.findById(INVALID_BEER_ID))
+                .thenReturn(Optional.empty());
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> stockUpdateStrategy.increment(INVALID_BEER_ID, quantityToIncrement));
+    }
+
+    @Test
+    void whenDecrementIsCalledWithAValidIdThenDecrementBeerStock()
+            throws BeerNotFoundException, BeerStockNegativeException {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        int quantityToDecrement = 10;
+        int expectedQuantity = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(expectedQuantity);
+
+        // WHEN
+        when(beerRepository.decrementStock(expectedBeerDTO.getId(), quantityToDecrement))
+                .thenReturn(1);
+
+        when(beerRepository.findById(expectedBeerDTO.getId()))
+                .thenReturn(Optional.of(expectedBeer));
+
+        // THEN
+        Beer decrementedBeer = stockUpdateStrategy.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+
+        assertThat(expectedQuantity, equalTo(decrementedBeer.getQuantity()));
+        assertThat(expectedQuantity, greaterThanOrEqualTo(0));
+
+        verify(beerRepository, never()).save(expectedBeer);
+    }
+
+    @Test
+    void whenDecrementAfterSubIsLessThanZeroThenThrowsAnException() {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+        int quantityToDecrement = 11;
+
+        // WHEN
+        when(beerRepository.decrementStock(expectedBeerDTO.getId(), quantityToDecrement))
+                .thenReturn(0);
+
+        when(beerRepository.findById(expectedBeerDTO.getId()))
+                .thenReturn(Optional.of(expectedBeer));
+
+        // THROW
+        assertThrows(BeerStockNegativeException.class,
+                () -> stockUpdateStrategy.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowAnException() {
+
+        // GIVEN
+        int quantityToDecrement = 10;
+
+        // WHEN
+        when(beerRepository.decrementStock(INVALID_BEER_ID, quantityToDecrement))
+                .thenReturn(0);
+
+        when(beerRepository.findById(INVALID_BEER_ID))
+                .thenReturn(Optional.empty());
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> stockUpdateStrategy.decrement(INVALID_BEER_ID, quantityToDecrement));
+    }
+}
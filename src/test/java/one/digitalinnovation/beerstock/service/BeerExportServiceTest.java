@@ -0,0 +1,89 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerExportServiceTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private BeerExportService beerExportService;
+
+    @Test
+    void whenExportIsCalledThenEachBeerIsWrittenAsOneJSONLine()
+            throws IOException {
+
+        // GIVEN
+        BeerDTO firstBeerDTO = BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO();
+        BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        Beer firstBeer = beerMapper.toModel(firstBeerDTO);
+        Beer secondBeer = beerMapper.toModel(secondBeerDTO);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        when(beerRepository.streamAll()).thenReturn(Stream.of(firstBeer, secondBeer));
+
+        // THEN
+        beerExportService.exportAll(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8.name()).split("\n");
+
+        assertThat(lines.length, is(2));
+        assertThat(lines[1].charAt(0), is('{'));
+        assertThat(objectMapper.readValue(lines[0], BeerDTO.class), is(equalTo(firstBeerDTO)));
+        assertThat(objectMapper.readValue(lines[1], BeerDTO.class), is(equalTo(secondBeerDTO)));
+
+        verify(entityManager, times(1)).detach(firstBeer);
+        verify(entityManager, times(1)).detach(secondBeer);
+    }
+
+    @Test
+    void whenCatalogIsEmptyThenNothingIsWritten()
+            throws IOException {
+
+        // GIVEN
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        when(beerRepository.streamAll()).thenReturn(Stream.empty());
+
+        // THEN
+        beerExportService.exportAll(outputStream);
+
+        assertThat(outputStream.size(), is(0));
+    }
+}
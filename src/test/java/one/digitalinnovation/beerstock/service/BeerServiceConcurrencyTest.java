@@ -0,0 +1,218 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.StockReservationRepository;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+import one.digitalinnovation.beerstock.exception.BeerStockUnavailableException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class BeerServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameBeerThenNoUpdateIsLost()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(THREADS * CALLS_PER_THREAD, 0);
+
+        // WHEN
+        int failures = runConcurrently(() -> {
+            beerService.increment(beer.getId(), 1);
+            return null;
+        });
+
+        // THEN
+        assertThat(failures, is(0));
+        assertThat(currentQuantity(beer), is(THREADS * CALLS_PER_THREAD));
+    }
+
+    @Test
+    void whenManyThreadsDecrementTheSameBeerThenNoUpdateIsLost()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(THREADS * CALLS_PER_THREAD, THREADS * CALLS_PER_THREAD);
+
+        // WHEN
+        int failures = runConcurrently(() -> {
+            beerService.decrement(beer.getId(), 1);
+            return null;
+        });
+
+        // THEN
+        assertThat(failures, is(0));
+        assertThat(currentQuantity(beer), is(0));
+    }
+
+    @Test
+    void whenConcurrentIncrementsExceedMaxThenStockStopsAtMax()
+            throws Exception {
+
+        // GIVEN
+        int max = THREADS * CALLS_PER_THREAD / 2;
+        Beer beer = saveBeer(max, 0);
+        AtomicInteger exceeded = new AtomicInteger();
+
+        // WHEN
+        runConcurrently(() -> {
+            try {
+                beerService.increment(beer.getId(), 1);
+            } catch(BeerStockExceededException e) {
+                exceeded.incrementAndGet();
+            }
+            return null;
+        });
+
+        // THEN
+        assertThat(exceeded.get(), is(THREADS * CALLS_PER_THREAD - max));
+        assertThat(currentQuantity(beer), is(max));
+    }
+
+    @Test
+    void whenConcurrentDecrementsExceedStockThenStockStopsAtZero()
+            throws Exception {
+
+        // GIVEN
+        int quantity = THREADS * CALLS_PER_THREAD / 2;
+        Beer beer = saveBeer(THREADS * CALLS_PER_THREAD, quantity);
+        AtomicInteger negative = new AtomicInteger();
+
+        // WHEN
+        runConcurrently(() -> {
+            try {
+                beerService.decrement(beer.getId(), 1);
+            } catch(BeerStockNegativeException e) {
+                negative.incrementAndGet();
+            }
+            return null;
+        });
+
+        // THEN
+        assertThat(negative.get(), is(THREADS * CALLS_PER_THREAD - quantity));
+        assertThat(currentQuantity(beer), is(0));
+    }
+
+    @Test
+    void whenConcurrentReservationsExceedStockThenReservedStockIsNeverSold()
+            throws Exception {
+
+        // GIVEN
+        int quantity = THREADS * CALLS_PER_THREAD / 2;
+        Beer beer = saveBeer(THREADS * CALLS_PER_THREAD, quantity);
+        AtomicInteger unavailable = new AtomicInteger();
+
+        // WHEN
+        runConcurrently(() -> {
+            try {
+                beerService.reserve(beer.getId(), 1);
+            } catch(BeerStockUnavailableException e) {
+                unavailable.incrementAndGet();
+            }
+            return null;
+        });
+
+        // THEN
+        assertThat(unavailable.get(), is(THREADS * CALLS_PER_THREAD - quantity));
+        assertThat(stockReservationRepository.count(), is((long) quantity));
+        assertThat(currentQuantity(beer), is(quantity));
+        assertThrows(BeerStockNegativeException.class, () -> beerService.decrement(beer.getId(), 1));
+    }
+
+    private Beer saveBeer(int max, int quantity) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(null)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+
+        return beerRepository.save(beerMapper.toModel(beerDTO));
+    }
+
+    private int currentQuantity(Beer beer) {
+        return beerRepository.findById(beer.getId())
+                .orElseThrow(IllegalStateException::new)
+                .getQuantity();
+    }
+
+    private int runConcurrently(Callable<Void> call) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for(int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int failures = 0;
+
+                for(int j = 0; j < CALLS_PER_THREAD; j++) {
+                    try {
+                        call.call();
+                    } catch(Exception e) {
+                        failures++;
+                    }
+                }
+
+                return failures;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+
+        int failures = 0;
+        for(Future<Integer> result : results) {
+            try {
+                failures += result.get();
+            } catch(Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return failures;
+    }
+}
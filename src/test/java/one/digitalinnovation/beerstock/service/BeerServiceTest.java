@@ -1,27 +1,71 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.StockReservation;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.SparseBeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.BeerCacheProperties;
+import one.digitalinnovation.beerstock.index.LowStockIndex;
+import one.digitalinnovation.beerstock.index.BeerNameIndex;
+import one.digitalinnovation.beerstock.idempotency.IdempotencyStore;
+import one.digitalinnovation.beerstock.idempotency.IdempotencyProperties;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockMovedEvent;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerSearchRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockBatchRepository;
+import one.digitalinnovation.beerstock.repository.StockReservationRepository;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.enums.BeerCreationStatus;
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.dto.BeerCreationResultDTO;
+import one.digitalinnovation.beerstock.exception.InvalidCursorException;
+import one.digitalinnovation.beerstock.exception.UnknownBeerFieldException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
-import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.exception.BeerStockUnavailableException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.exception.ReservationsUnsupportedException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Set;
 import java.util.List;
+import java.util.EnumSet;
+import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.stream.Collectors;
+import java.time.Instant;
+import javax.persistence.Tuple;
+import javax.persistence.EntityManager;
 
 import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -30,10 +74,48 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class BeerServiceTest {
 
     private static final long INVALID_BEER_ID = 1L;
+    private static final int PAGE_SIZE = 10;
 
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private BeerStockBatchRepository beerStockBatchRepository;
+
+    @Mock
+    private BeerSearchRepository beerSearchRepository;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ReservationTimer reservationTimer;
+
+    @Mock
+    private StockUpdateStrategy stockUpdateStrategy;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private BeerNameIndex beerNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private BeerCache beerCache = new BeerCache(new BeerCacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(new IdempotencyProperties(),
+            new SimpleMeterRegistry());
+
+    @Spy
+    private ReservationProperties reservationProperties = new ReservationProperties();
+
     private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -45,13 +127,15 @@ public class BeerServiceTest {
 
         // GIVEN
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beerToSave = beerMapper.toModel(beerDTO);
+        beerToSave.setId(null);
         Beer expectedSavedBeer = beerMapper.toModel(beerDTO);
 
         // WHEN
-        when(beerRepository.findByName(beerDTO.getName()))
+        when(beerRepository.findByNormalizedName(Beer.normalize(beerDTO.getName())))
                 .thenReturn(Optional.empty());
 
-        when(beerRepository.save(expectedSavedBeer))
+        when(beerRepository.save(beerToSave))
                 .thenReturn(expectedSavedBeer);
 
         // THEN
@@ -61,6 +145,8 @@ public class BeerServiceTest {
         assertThat(createdBeerDTO.getName(), is(equalTo(beerDTO.getName())));
         assertThat(createdBeerDTO.getQuantity(), is(equalTo(beerDTO.getQuantity())));
 
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BeerChangedEvent.class));
     }
 
     @Test
@@ -71,7 +157,7 @@ public class BeerServiceTest {
         Beer duplicatedBeer = beerMapper.toModel(beerDTO);
 
         // WHEN
-        when(beerRepository.findByName(beerDTO.getName()))
+        when(beerRepository.findByNormalizedName(Beer.normalize(beerDTO.getName())))
                 .thenReturn(Optional.of(duplicatedBeer));
 
         // THROW
@@ -80,6 +166,63 @@ public class BeerServiceTest {
 
     }
 
+    @Test
+    void whenBeersAreCreatedInBulkThenRegisteredNamesAreReportedAsConflicts() {
+
+        // GIVEN
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().name("Brahma").build().toBeerDTO();
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO();
+        BeerDTO repeatedBeerDTO = BeerDTOBuilder.builder().id(null).name("SKOL").build().toBeerDTO();
+
+        // WHEN
+        when(beerRepository.findNormalizedNamesIn(Arrays.asList("brahma", "skol")))
+                .thenReturn(Collections.singleton("brahma"));
+
+        when(beerRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Beer> beers = new ArrayList<>(invocation.getArgument(0));
+            beers.forEach(beer -> beer.setId(2L));
+            return beers;
+        });
+
+        // THEN
+        List<BeerCreationResultDTO> results = beerService.createBeers(
+                Arrays.asList(registeredBeerDTO, newBeerDTO, repeatedBeerDTO));
+
+        assertThat(results, hasSize(3));
+        assertThat(results.get(0).getName(), is("Brahma"));
+        assertThat(results.get(0).getStatus(), is(BeerCreationStatus.ALREADY_REGISTERED));
+        assertThat(results.get(1).getStatus(), is(BeerCreationStatus.CREATED));
+        assertThat(results.get(1).getBeer().getId(), is(2L));
+        assertThat(results.get(2).getName(), is("SKOL"));
+        assertThat(results.get(2).getStatus(), is(BeerCreationStatus.ALREADY_REGISTERED));
+
+        verify(beerRepository, never()).findByNormalizedName(Beer.normalize("Skol"));
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void whenBeersAreCreatedInBulkWithIdsThenTheIdsAreLeftToTheSequence() {
+
+        // GIVEN
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(9L).name("Skol").build().toBeerDTO();
+        List<Beer> savedBeers = new ArrayList<>();
+
+        // WHEN
+        when(beerRepository.findNormalizedNamesIn(Collections.singletonList("skol")))
+                .thenReturn(Collections.emptySet());
+
+        when(beerRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            ((Iterable<Beer>) invocation.getArgument(0)).forEach(savedBeers::add);
+            return new ArrayList<>(savedBeers);
+        });
+
+        // THEN
+        beerService.createBeers(Collections.singletonList(beerDTO));
+
+        assertThat(savedBeers, hasSize(1));
+        assertThat(savedBeers.get(0).getId(), is(nullValue()));
+    }
+
     @Test
     void whenAValidBeerNameIsGivenThenReturnABeer()
             throws BeerNotFoundException {
@@ -89,7 +232,7 @@ public class BeerServiceTest {
         Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
 
         // WHEN
-        when(beerRepository.findByName(expectedFoundBeer.getName()))
+        when(beerRepository.findByNormalizedName(Beer.normalize(expectedFoundBeer.getName())))
                 .thenReturn(Optional.of(expectedFoundBeer));
 
         // THEN
@@ -98,6 +241,47 @@ public class BeerServiceTest {
         assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
     }
 
+    @Test
+    void whenABeerNameIsGivenInAnotherCaseThenTheSameBeerIsReturned()
+            throws BeerNotFoundException {
+
+        // GIVEN
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().name("Brahma").build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+        // WHEN
+        when(beerRepository.findByNormalizedName("brahma"))
+                .thenReturn(Optional.of(expectedFoundBeer));
+
+        // THEN
+        assertThat(beerService.findByName("BRAHMA"), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(beerService.findByName("brahma"), is(equalTo(expectedFoundBeerDTO)));
+
+        verify(beerRepository, times(1)).findByNormalizedName("brahma");
+    }
+
+    @Test
+    void whenABeerNameIsSearchedTwiceThenTheSecondLookupIsServedFromCache()
+            throws BeerNotFoundException {
+
+        // GIVEN
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+        // WHEN
+        when(beerRepository.findByNormalizedName(Beer.normalize(expectedFoundBeer.getName())))
+                .thenReturn(Optional.of(expectedFoundBeer));
+
+        // THEN
+        beerService.findByName(expectedFoundBeerDTO.getName());
+        BeerDTO cachedBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+
+        assertThat(cachedBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+
+        verify(beerRepository, times(1))
+                .findByNormalizedName(Beer.normalize(expectedFoundBeerDTO.getName()));
+    }
+
     @Test
     void whenANotRegisteredBeerNameIsGivenThenThrowAnException() {
 
@@ -105,7 +289,7 @@ public class BeerServiceTest {
         BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
         // WHEN
-        when(beerRepository.findByName(expectedFoundBeerDTO.getName()))
+        when(beerRepository.findByNormalizedName(Beer.normalize(expectedFoundBeerDTO.getName())))
                 .thenReturn(Optional.empty());
 
         // THROW
@@ -115,35 +299,161 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenListBeersIsCalledReturnAListOfBeers() {
+    void whenListBeersIsCalledReturnAListOfBeers()
+            throws InvalidCursorException, UnknownBeerFieldException {
 
         // GIVEN
         BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
 
         // WHEN
-        when(beerRepository.findAll())
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, PAGE_SIZE + 1)))
                 .thenReturn(Collections.singletonList(expectedFoundBeer));
 
         // THEN
-        List<BeerDTO> listBeersDTO = beerService.listAll();
+        BeerPageDTO page = beerService.listAll(null, PAGE_SIZE, null);
 
-        assertThat(listBeersDTO, is(not(empty())));
-        assertThat(listBeersDTO.get(0), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(page.getBeers(), is(not(empty())));
+        assertThat(page.getBeers().get(0), is(equalTo(expectedFoundBeerDTO)));
+        assertThat(page.getNextCursor(), is(nullValue()));
 
     }
 
     @Test
-    void whenListBeersIsCalledReturnAnEmptyList() {
+    void whenListBeersIsCalledReturnAnEmptyList()
+            throws InvalidCursorException, UnknownBeerFieldException {
 
         // WHEN
-        when(beerRepository.findAll())
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, PAGE_SIZE + 1)))
                 .thenReturn(Collections.EMPTY_LIST);
 
         // THEN
-        List<BeerDTO> listBeersDTO = beerService.listAll();
+        BeerPageDTO page = beerService.listAll(null, PAGE_SIZE, null);
+
+        assertThat(page.getBeers(), is(empty()));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenMoreBeersThanLimitExistThenNextCursorContinuesAfterLastBeer()
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        // GIVEN
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+        Beer thirdBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(3L).name("Bohemia").build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(firstBeer, secondBeer, thirdBeer));
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 3)))
+                .thenReturn(Collections.singletonList(thirdBeer));
+
+        // THEN
+        BeerPageDTO firstPage = beerService.listAll(null, 2, null);
+        BeerPageDTO secondPage = beerService.listAll(firstPage.getNextCursor(), 2, null);
+
+        assertThat(firstPage.getBeers(), hasSize(2));
+        assertThat(firstPage.getNextCursor(), is(notNullValue()));
+        assertThat(secondPage.getBeers(), hasSize(1));
+        assertThat(secondPage.getBeers().get(0).getId(), is(equalTo(thirdBeer.getId())));
+        assertThat(secondPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenListBeersIsCalledWithInvalidCursorThenThrowAnException() {
+
+        // THROW
+        assertThrows(InvalidCursorException.class,
+                () -> beerService.listAll("not-a-cursor", PAGE_SIZE, null));
+    }
+
+    @Test
+    void whenSearchMatchesMoreBeersThanLimitThenNextCursorIsReturned()
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        // GIVEN
+        BeerSearchDTO criteria = BeerSearchDTO.builder().lowStock(0.5).build();
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+
+        // WHEN
+        when(beerSearchRepository.search(criteria, 0L, 2))
+                .thenReturn(Arrays.asList(firstBeer, secondBeer));
+
+        // THEN
+        BeerPageDTO page = beerService.search(criteria, null, 1, null);
+
+        assertThat(page.getBeers(), hasSize(1));
+        assertThat(page.getBeers().get(0).getId(), is(equalTo(firstBeer.getId())));
+        assertThat(page.getNextCursor(), is(notNullValue()));
+    }
+
+    @Test
+    void whenFieldsAreRequestedThenOnlyThoseFieldsAreSetOnTheListedBeers()
+            throws InvalidCursorException, UnknownBeerFieldException {
+
+        // GIVEN
+        Set<BeerField> fields = EnumSet.of(BeerField.ID, BeerField.NAME);
+        Tuple brahma = mock(Tuple.class);
+        Tuple skol = mock(Tuple.class);
+
+        // WHEN
+        when(brahma.get("id")).thenReturn(1L);
+        when(brahma.get("id", Long.class)).thenReturn(1L);
+        when(brahma.get("name")).thenReturn("Brahma");
+        when(beerSearchRepository.search(any(BeerSearchDTO.class), eq(0L), eq(2), eq(fields)))
+                .thenReturn(Arrays.asList(brahma, skol));
+
+        // THEN
+        BeerPageDTO page = beerService.listAll(null, 1, "id, name");
+
+        assertThat(page.getBeers(), contains(BeerDTO.builder().id(1L).name("Brahma").build()));
+        assertThat(page.getBeers().get(0), instanceOf(SparseBeerDTO.class));
+        assertThat(page.getNextCursor(), is(notNullValue()));
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void whenAnUnknownFieldIsRequestedThenAnExceptionIsThrown() {
+
+        // THROW
+        assertThrows(UnknownBeerFieldException.class,
+                () -> beerService.search(new BeerSearchDTO(), null, PAGE_SIZE, "name,reserved"));
 
-        assertThat(listBeersDTO, is(empty()));
+        verifyNoInteractions(beerSearchRepository);
+    }
+
+    @Test
+    void whenLowStockIsRequestedThenTheLimitIsCappedAndTheIndexIsQueried() {
+
+        // GIVEN
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // WHEN
+        when(lowStockIndex.lowest(BeerService.MAX_PAGE_SIZE))
+                .thenReturn(Collections.singletonList(expectedBeerDTO));
+
+        // THEN
+        List<BeerDTO> beers = beerService.findLowStock(BeerService.MAX_PAGE_SIZE + 1);
+
+        assertThat(beers, contains(expectedBeerDTO));
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void whenAutocompleteIsRequestedThenTheLimitIsCappedAndTheNameIndexIsQueried() {
+
+        // WHEN
+        when(beerNameIndex.complete("br", BeerService.MAX_AUTOCOMPLETE_SIZE))
+                .thenReturn(Collections.singletonList("Brahma"));
+
+        // THEN
+        List<String> names = beerService.autocomplete("br", BeerService.MAX_AUTOCOMPLETE_SIZE + 1);
+
+        assertThat(names, is(Collections.singletonList("Brahma")));
+        verifyNoInteractions(beerRepository);
     }
 
     @Test
@@ -169,6 +479,9 @@ public class BeerServiceTest {
 
         verify(beerRepository, times(1))
                 .deleteById(expectedDeletedBeerDTO.getId());
+
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BeerChangedEvent.class));
     }
 
     @Test
@@ -186,136 +499,317 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenIncrementIsCalledWithAValidIdThenIncrementBeerStock()
-            throws BeerNotFoundException, BeerStockExceededException {
+    void whenIncrementIsCalledThenTheStrategyResultIsReturnedAndPublished()
+            throws Exception {
 
         // GIVEN
-        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        int quantityToIncrement = 10;
-        int expectedQuantity = expectedBeerDTO.getQuantity() + quantityToIncrement;
-
         // WHEN
-        when(beerRepository.findById(expectedBeerDTO.getId()))
-                .thenReturn(Optional.of(expectedBeer));
-
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(stockUpdateStrategy.increment(expectedBeerDTO.getId(), 10))
+                .thenReturn(expectedBeer);
 
         // THEN
-        BeerDTO incrementedBeer = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
+        BeerDTO incrementedBeer = beerService.increment(expectedBeerDTO.getId(), 10);
+
+        assertThat(incrementedBeer, is(equalTo(expectedBeerDTO)));
 
-        assertThat(expectedQuantity, equalTo(incrementedBeer.getQuantity()));
-        assertThat(expectedQuantity, lessThan(incrementedBeer.getMax()));
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BeerChangedEvent.class));
 
+        List<StockMovedEvent> movements = publishedMovements();
+
+        assertThat(movements, hasSize(1));
+        assertThat(movements.get(0).getDelta(), is(10));
+        assertThat(movements.get(0).getResultingQuantity(), is(20));
+        assertThat(movements.get(0).getReason(), is(StockMovementReason.INCREMENT));
     }
 
     @Test
-    void whenIncrementIsGreaterThanMaxThenThrowsAnException() {
+    void whenAnIncrementIsRetriedWithTheSameIdempotencyKeyThenItIsAppliedOnce()
+            throws Exception {
 
         // GIVEN
-        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        int quantityToIncrement = 80;
+        // WHEN
+        when(stockUpdateStrategy.increment(expectedBeerDTO.getId(), 10))
+                .thenReturn(expectedBeer);
+
+        // THEN
+        BeerDTO firstResult = beerService.increment(expectedBeerDTO.getId(), 10, "scan-1");
+        BeerDTO retriedResult = beerService.increment(expectedBeerDTO.getId(), 10, "scan-1");
+
+        assertThat(retriedResult, is(equalTo(firstResult)));
+        assertThat(publishedMovements(), hasSize(1));
+
+        verify(stockUpdateStrategy, times(1)).increment(expectedBeerDTO.getId(), 10);
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void whenAnIdempotencyKeyIsReusedForAnotherRequestThenAnExceptionIsThrown()
+            throws Exception {
+
+        // GIVEN
+        Beer expectedBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
 
         // WHEN
-        when(beerRepository.findById(expectedBeerDTO.getId()))
-                .thenReturn(Optional.of(expectedBeer));
+        when(stockUpdateStrategy.increment(expectedBeer.getId(), 10))
+                .thenReturn(expectedBeer);
+
+        beerService.increment(expectedBeer.getId(), 10, "scan-1");
 
         // THROW
-        assertThrows(BeerStockExceededException.class,
-                () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> beerService.decrement(expectedBeer.getId(), 10, "scan-1"));
+
+        verify(stockUpdateStrategy, never()).decrement(any(), anyInt());
     }
 
     @Test
-    void whenIncrementAfterSumIsGreaterThanMaxThenThrowsAnException() {
+    void whenARequestWithAnIdempotencyKeyFailsThenItsRetryIsApplied()
+            throws Exception {
 
         // GIVEN
-        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        Beer expectedBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(stockUpdateStrategy.decrement(expectedBeer.getId(), 10))
+                .thenThrow(BeerStockNegativeException.class)
+                .thenReturn(expectedBeer);
+
+        // THEN
+        assertThrows(BeerStockNegativeException.class,
+                () -> beerService.decrement(expectedBeer.getId(), 10, "scan-1"));
+
+        BeerDTO retriedResult = beerService.decrement(expectedBeer.getId(), 10, "scan-1");
+
+        assertThat(retriedResult.getId(), is(expectedBeer.getId()));
+        verify(stockUpdateStrategy, times(2)).decrement(expectedBeer.getId(), 10);
+    }
+
+    @Test
+    void whenStockIsReservedThenTheReservationExpiresAfterTheTtl()
+            throws Exception {
 
-        int quantityToIncrement = 41;
+        // GIVEN
+        StockReservation savedReservation = new StockReservation(7L, 1L, 3, Instant.now());
 
         // WHEN
-        when(beerRepository.findById(expectedBeerDTO.getId()))
-                .thenReturn(Optional.of(expectedBeer));
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(beerRepository.reserveStock(1L, 3)).thenReturn(1);
+        when(stockReservationRepository.save(any(StockReservation.class))).thenReturn(savedReservation);
+
+        // THEN
+        ReservationDTO reservation = beerService.reserve(1L, 3);
+
+        assertThat(reservation.getId(), is(7L));
+        assertThat(reservation.getQuantity(), is(3));
+
+        verify(reservationTimer).schedule(eq(7L), any(Instant.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void whenMoreStockThanIsUnreservedIsReservedThenAnExceptionIsThrown() {
+
+        // GIVEN
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(beerRepository.reserveStock(beer.getId(), 50)).thenReturn(0);
+        when(beerRepository.findById(beer.getId())).thenReturn(Optional.of(beer));
 
         // THROW
-        assertThrows(BeerStockExceededException.class,
-                () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
+        assertThrows(BeerStockUnavailableException.class, () -> beerService.reserve(beer.getId(), 50));
+
+        verifyNoInteractions(stockReservationRepository, reservationTimer);
     }
 
     @Test
-    void whenIncrementIsCalledWithInvalidIdThenThrowAnException() {
+    void whenAReservationIsConfirmedThenItsUnitsLeaveTheStock()
+            throws Exception {
 
         // GIVEN
-        int quantityToIncrement = 10;
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().quantity(7).build().toBeerDTO());
+        StockReservation reservation = new StockReservation(7L, beer.getId(), 3, Instant.now());
 
         // WHEN
-        when(beerRepository.findById(INVALID_BEER_ID))
-                .thenReturn(Optional.empty());
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(stockReservationRepository.findById(7L)).thenReturn(Optional.of(reservation));
+        when(stockReservationRepository.claim(7L)).thenReturn(1);
+        when(beerRepository.confirmReservedStock(beer.getId(), 3)).thenReturn(1);
+        when(beerRepository.findById(beer.getId())).thenReturn(Optional.of(beer));
+
+        // THEN
+        BeerDTO confirmedBeer = beerService.confirmReservation(7L);
+
+        assertThat(confirmedBeer.getQuantity(), is(7));
+
+        List<StockMovedEvent> movements = publishedMovements();
+
+        assertThat(movements, hasSize(1));
+        assertThat(movements.get(0).getDelta(), is(-3));
+        assertThat(movements.get(0).getReason(), is(StockMovementReason.DECREMENT));
+    }
+
+    @Test
+    void whenAReservationWasAlreadyClaimedThenItCannotBeReleasedAgain() {
+
+        // GIVEN
+        StockReservation reservation = new StockReservation(7L, 1L, 3, Instant.now());
+
+        // WHEN
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(stockReservationRepository.findById(7L)).thenReturn(Optional.of(reservation));
+        when(stockReservationRepository.claim(7L)).thenReturn(0);
 
         // THROW
-        assertThrows(BeerNotFoundException.class,
-                () -> beerService.increment(INVALID_BEER_ID, quantityToIncrement));
+        assertThrows(ReservationNotFoundException.class, () -> beerService.releaseReservation(7L));
+
+        verify(beerRepository, never()).releaseReservedStock(any(), anyInt());
+    }
+
+    @Test
+    void whenStockIsNotWrittenThroughThenReservationsCannotBeConfirmedOrReleased() {
+
+        // WHEN
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(false);
+
+        // THROW
+        assertThrows(ReservationsUnsupportedException.class, () -> beerService.confirmReservation(7L));
+        assertThrows(ReservationsUnsupportedException.class, () -> beerService.releaseReservation(7L));
+
+        verifyNoInteractions(stockReservationRepository);
+        verify(beerRepository, never()).confirmReservedStock(any(), anyInt());
+        verify(beerRepository, never()).releaseReservedStock(any(), anyInt());
+    }
+
+    @Test
+    void whenDecrementIsRejectedThenNothingIsPublished()
+            throws Exception {
+
+        // WHEN
+        when(stockUpdateStrategy.decrement(INVALID_BEER_ID, 10))
+                .thenThrow(BeerStockNegativeException.class);
+
+        // THROW
+        assertThrows(BeerStockNegativeException.class,
+                () -> beerService.decrement(INVALID_BEER_ID, 10));
+
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void whenDecrementIsCalledWithAValidIdThenDecrementBeerStock()
-            throws BeerNotFoundException, BeerStockNegativeException {
+    void whenStockAdjustmentsAreGivenThenEachOneIsReportedSeparately() {
 
         // GIVEN
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        int quantityToDecrement = 10;
-        int expectedQuantity = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(expectedBeer.getId(), 5),
+                new StockAdjustmentDTO(expectedBeer.getId(), 80),
+                new StockAdjustmentDTO(expectedBeer.getId(), -80),
+                new StockAdjustmentDTO(INVALID_BEER_ID + 1, 1));
+
+        expectedBeer.setQuantity(expectedBeerDTO.getQuantity() + 5);
 
         // WHEN
-        when(beerRepository.findById(expectedBeerDTO.getId()))
-                .thenReturn(Optional.of(expectedBeer));
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(beerStockBatchRepository.adjustStock(adjustments))
+                .thenReturn(new int[] {1, 0, 0, 0});
 
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(beerRepository.findAllById(anyCollection()))
+                .thenReturn(Collections.singletonList(expectedBeer));
 
         // THEN
-        BeerDTO decrementedBeer = beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+        List<StockAdjustmentResultDTO> results = beerService.adjustStock(adjustments);
 
-        assertThat(expectedQuantity, equalTo(decrementedBeer.getQuantity()));
-        assertThat(expectedQuantity, greaterThanOrEqualTo(0));
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0).getStatus(), is(StockAdjustmentStatus.APPLIED));
+        assertThat(results.get(0).getQuantity(), is(expectedBeer.getQuantity()));
+        assertThat(results.get(1).getStatus(), is(StockAdjustmentStatus.EXCEEDED));
+        assertThat(results.get(2).getStatus(), is(StockAdjustmentStatus.NEGATIVE));
+        assertThat(results.get(3).getStatus(), is(StockAdjustmentStatus.NOT_FOUND));
+
+        verify(eventPublisher, times(1))
+                .publishEvent(any(BeerChangedEvent.class));
     }
 
     @Test
-    void whenDecrementAfterSubIsLessThanZeroThenThrowsAnException() {
+    void whenSeveralAdjustmentsHitTheSameBeerThenEachMovementHasItsOwnResultingQuantity() {
 
         // GIVEN
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        int quantityToDecrement = 11;
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(expectedBeer.getId(), 5),
+                new StockAdjustmentDTO(expectedBeer.getId(), 80),
+                new StockAdjustmentDTO(expectedBeer.getId(), -3));
+
+        expectedBeer.setQuantity(expectedBeerDTO.getQuantity() + 5 - 3);
 
         // WHEN
-        when(beerRepository.findById(expectedBeerDTO.getId()))
-                .thenReturn(Optional.of(expectedBeer));
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(beerStockBatchRepository.adjustStock(adjustments))
+                .thenReturn(new int[] {1, 0, 1});
 
-        // THROW
-        assertThrows(BeerStockNegativeException.class,
-                () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+        when(beerRepository.findAllById(anyCollection()))
+                .thenReturn(Collections.singletonList(expectedBeer));
+
+        // THEN
+        beerService.adjustStock(adjustments);
+
+        List<StockMovedEvent> movements = publishedMovements();
+
+        assertThat(movements, hasSize(2));
+        assertThat(movements.get(0).getDelta(), is(5));
+        assertThat(movements.get(0).getResultingQuantity(), is(15));
+        assertThat(movements.get(1).getDelta(), is(-3));
+        assertThat(movements.get(1).getResultingQuantity(), is(12));
+        assertThat(movements.get(1).getReason(), is(StockMovementReason.ADJUSTMENT));
     }
 
     @Test
-    void whenDecrementIsCalledWithInvalidIdThenThrowAnException() {
+    void whenTheStrategyKeepsStockOutsideTheDatabaseThenAdjustmentsAreAppliedOneByOne()
+            throws Exception {
 
         // GIVEN
-        int quantityToDecrement = 10;
+        Beer expectedBeer = beerMapper.toModel(BeerDTOBuilder.builder().quantity(15).build().toBeerDTO());
+
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(expectedBeer.getId(), 5),
+                new StockAdjustmentDTO(expectedBeer.getId(), -80));
 
         // WHEN
-        when(beerRepository.findById(INVALID_BEER_ID))
-                .thenReturn(Optional.empty());
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(false);
+        when(stockUpdateStrategy.increment(expectedBeer.getId(), 5)).thenReturn(expectedBeer);
+        when(stockUpdateStrategy.decrement(expectedBeer.getId(), 80)).thenThrow(BeerStockNegativeException.class);
 
-        // THROW
-        assertThrows(BeerNotFoundException.class,
-                () -> beerService.increment(INVALID_BEER_ID, quantityToDecrement));
+        // THEN
+        List<StockAdjustmentResultDTO> results = beerService.adjustStock(adjustments);
+
+        assertThat(results.get(0).getStatus(), is(StockAdjustmentStatus.APPLIED));
+        assertThat(results.get(0).getQuantity(), is(15));
+        assertThat(results.get(1).getStatus(), is(StockAdjustmentStatus.NEGATIVE));
+        assertThat(publishedMovements(), hasSize(1));
+
+        verifyNoInteractions(beerStockBatchRepository);
     }
 
+    private List<StockMovedEvent> publishedMovements() {
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+
+        return events.getAllValues().stream()
+                .filter(StockMovedEvent.class::isInstance)
+                .map(StockMovedEvent.class::cast)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,101 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static one.digitalinnovation.beerstock.service.StockConcurrencyUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "beerstock.stock.strategy=group-commit",
+        "beerstock.group-commit.window=5ms"
+})
+public class GroupCommitStockConcurrencyTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockUpdateStrategy stockUpdateStrategy;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenGroupCommitStrategyIsSelectedThenItIsTheActiveStrategy() {
+        assertThat(stockUpdateStrategy, instanceOf(GroupCommitStockUpdateStrategy.class));
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameBeerThenEachCallerSeesItsOwnStock()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, THREADS * CALLS_PER_THREAD, 0);
+        Set<Integer> seenQuantities = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        run(() -> seenQuantities.add(beerService.increment(beer.getId(), 1).getQuantity()));
+
+        // THEN
+        assertThat(quantityOf(beerRepository, beer), is(THREADS * CALLS_PER_THREAD));
+        assertThat(seenQuantities.size(), is(THREADS * CALLS_PER_THREAD));
+        assertThat(meterRegistry.get(GroupCommitStockUpdateStrategy.BATCH_SIZE_SUMMARY).summary().max(),
+                is(greaterThan(1.0)));
+    }
+
+    @Test
+    void whenMoreDecrementsThanStockArriveTogetherThenOnlyTheExcessIsRejected()
+            throws Exception {
+
+        // GIVEN
+        int stock = THREADS * CALLS_PER_THREAD / 2;
+        Beer beer = saveBeer(beerRepository, stock, stock);
+        AtomicInteger rejected = new AtomicInteger();
+
+        // WHEN
+        run(() -> {
+            try {
+                beerService.decrement(beer.getId(), 1);
+            } catch(BeerStockNegativeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        // THEN
+        assertThat(quantityOf(beerRepository, beer), is(0));
+        assertThat(rejected.get(), is(THREADS * CALLS_PER_THREAD - stock));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenThrowsAnException() {
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> beerService.decrement(Long.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,186 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupCommitStockUpdateStrategyTest {
+
+    private static final long VALID_BEER_ID = 1L;
+    private static final long FAILING_BEER_ID = 2L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final GroupCommitProperties groupCommitProperties = new GroupCommitProperties();
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private GroupCommitStockUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = newStrategy();
+    }
+
+    @Test
+    void whenTheStrategyIsStoppedThenNewMutationsAreRejected() throws Exception {
+
+        // GIVEN
+        strategy.start();
+        strategy.stop();
+
+        // THROW
+        assertThrows(BeerStockConflictException.class, () -> strategy.increment(VALID_BEER_ID, 1));
+    }
+
+    @Test
+    void whenAMutationIsQueuedThatNoCommitterWillTakeThenStopFailsIt() throws Exception {
+
+        // GIVEN the committer is never started, as if it exited right after the caller's check
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<?> result = caller.submit(() -> strategy.increment(VALID_BEER_ID, 1));
+
+        // WHEN
+        Thread.sleep(50);
+        strategy.stop();
+
+        // THEN
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(BeerStockConflictException.class));
+
+        caller.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenABatchFailsThenItsMutationsAreRetriedAloneAndOnlyTheFailingOneFails() throws Exception {
+
+        // GIVEN every mutation lands in one batch
+        groupCommitProperties.setPartitions(1);
+        groupCommitProperties.setWindow(Duration.ofMillis(200));
+        strategy = newStrategy();
+
+        when(beerRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(this::storedBeer)
+                        .collect(Collectors.toList()));
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Beer> updates = invocation.getArgument(1);
+
+            if(updates.stream().anyMatch(beer -> beer.getId() == FAILING_BEER_ID)) {
+                throw new DataAccessResourceFailureException("down");
+            }
+
+            return new int[][] {new int[] {1}};
+        });
+
+        strategy.start();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // WHEN
+        Future<Beer> applied = callers.submit(() -> strategy.increment(VALID_BEER_ID, 1));
+        Future<Beer> failed = callers.submit(() -> strategy.increment(FAILING_BEER_ID, 1));
+
+        // THEN
+        assertThat(applied.get(5, TimeUnit.SECONDS).getQuantity(), is(11));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(DataAccessResourceFailureException.class));
+
+        callers.shutdown();
+        strategy.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenAnotherPartitionsCommitIsStuckThenABeerOfThisPartitionIsStillCommitted() throws Exception {
+
+        // GIVEN the failing beer's committer hangs while locking it
+        groupCommitProperties.setPartitions(2);
+        strategy = newStrategy();
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(beerRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+
+            if(ids.contains(FAILING_BEER_ID)) {
+                release.await();
+            }
+
+            return ids.stream().map(this::storedBeer).collect(Collectors.toList());
+        });
+
+        strategy.start();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // WHEN
+        Future<Beer> stuck = callers.submit(() -> strategy.increment(FAILING_BEER_ID, 1));
+        Future<Beer> cold = callers.submit(() -> strategy.increment(VALID_BEER_ID, 1));
+
+        // THEN
+        assertThat(cold.get(5, TimeUnit.SECONDS).getQuantity(), is(11));
+        assertThat(stuck.isDone(), is(false));
+
+        release.countDown();
+        assertThat(stuck.get(5, TimeUnit.SECONDS).getQuantity(), is(11));
+
+        callers.shutdown();
+        strategy.stop();
+    }
+
+    private GroupCommitStockUpdateStrategy newStrategy() {
+        return new GroupCommitStockUpdateStrategy(beerRepository, jdbcTemplate, transactionManager,
+                groupCommitProperties, new SimpleMeterRegistry());
+    }
+
+    private Beer storedBeer(Long id) {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder()
+                .id(id)
+                .quantity(10)
+                .build()
+                .toBeerDTO());
+        beer.setVersion(0L);
+
+        return beer;
+    }
+}
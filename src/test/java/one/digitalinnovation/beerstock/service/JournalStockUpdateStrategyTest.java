@@ -0,0 +1,171 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.BeerCacheProperties;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.Collections;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class JournalStockUpdateStrategyTest {
+
+    private static final long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path directory;
+
+    private JournalProperties journalProperties;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        journalProperties = new JournalProperties();
+        journalProperties.setDirectory(directory.toString());
+        journalProperties.setCapacity(2);
+
+        lenient().when(beerRepository.findAll()).thenAnswer(invocation -> Collections.singletonList(storedBeer()));
+    }
+
+    @Test
+    void whenStockIsIncrementedThenTheDatabaseIsNotTouchedUntilSync()
+            throws Exception {
+
+        // GIVEN
+        JournalStockUpdateStrategy strategy = start();
+        clearInvocations(jdbcTemplate);
+
+        // WHEN
+        Beer incrementedBeer = strategy.increment(VALID_BEER_ID, 5);
+
+        // THEN
+        assertThat(incrementedBeer.getQuantity(), is(15));
+        assertThat(incrementedBeer.getVersion(), is(1L));
+        verifyNoInteractions(jdbcTemplate);
+
+        strategy.syncToDatabase();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(1), any());
+        verify(eventPublisher).publishEvent(any(StockSyncedEvent.class));
+    }
+
+    @Test
+    void whenASyncFailsThenTheBeerIsSyncedAgainNextTime()
+            throws Exception {
+
+        // GIVEN
+        JournalStockUpdateStrategy strategy = start();
+        strategy.increment(VALID_BEER_ID, 5);
+        clearInvocations(jdbcTemplate);
+
+        // WHEN
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[][] {{1}});
+
+        // THEN
+        assertThrows(DataAccessResourceFailureException.class, strategy::syncToDatabase);
+        verify(eventPublisher, never()).publishEvent(any(StockSyncedEvent.class));
+
+        strategy.syncToDatabase();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), eq(1), any());
+        verify(eventPublisher).publishEvent(any(StockSyncedEvent.class));
+    }
+
+    @Test
+    void whenTheProcessRestartsWithoutShutdownThenTheJournalIsReplayed()
+            throws Exception {
+
+        // GIVEN
+        JournalStockUpdateStrategy crashed = start();
+        crashed.increment(VALID_BEER_ID, 5);
+        crashed.decrement(VALID_BEER_ID, 2);
+        crashed.increment(VALID_BEER_ID, 1);
+
+        // WHEN
+        JournalStockUpdateStrategy restarted = start();
+
+        // THEN
+        assertThat(restarted.currentQuantities(Collections.singleton(VALID_BEER_ID)).get(VALID_BEER_ID), is(14));
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenThrowsAnException()
+            throws Exception {
+
+        // GIVEN
+        JournalStockUpdateStrategy strategy = start();
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> strategy.increment(VALID_BEER_ID, 41));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenThrowsAnException()
+            throws Exception {
+
+        // GIVEN
+        JournalStockUpdateStrategy strategy = start();
+
+        // WHEN
+        when(beerRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> strategy.decrement(2L, 1));
+    }
+
+    private JournalStockUpdateStrategy start() throws Exception {
+        JournalStockUpdateStrategy strategy = new JournalStockUpdateStrategy(beerRepository, jdbcTemplate,
+                new BeerCache(new BeerCacheProperties(), new SimpleMeterRegistry()), eventPublisher,
+                journalProperties);
+        strategy.recover();
+
+        return strategy;
+    }
+
+    private Beer storedBeer() {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        beer.setVersion(0L);
+
+        return beer;
+    }
+}
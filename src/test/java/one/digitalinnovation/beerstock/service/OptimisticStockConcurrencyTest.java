@@ -0,0 +1,76 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static one.digitalinnovation.beerstock.service.StockConcurrencyUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+/**
+ * Runs on H2's PageStore engine, since the optimistic strategy is not
+ * supported on the default MVStore engine of H2 1.4.200: an UPDATE waiting
+ * for the row lock of a committing transaction can match the version that
+ * transaction is replacing, so both report one row updated and one change
+ * is lost without any exception to retry on. See
+ * {@link OptimisticStockUpdateStrategy}.
+ */
+@SpringBootTest(properties = {
+        "beerstock.stock.strategy=optimistic",
+        "beerstock.stock.max-attempts=3",
+        "spring.datasource.url=jdbc:h2:mem:optimistic;MV_STORE=FALSE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000"
+})
+public class OptimisticStockConcurrencyTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockUpdateStrategy stockUpdateStrategy;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenOptimisticStrategyIsSelectedThenItIsTheActiveStrategy() {
+        assertThat(stockUpdateStrategy, instanceOf(OptimisticStockUpdateStrategy.class));
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameBeerThenOnlyConflictsAreLost()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, THREADS * CALLS_PER_THREAD, 0);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // WHEN
+        run(() -> {
+            try {
+                beerService.increment(beer.getId(), 1);
+                applied.incrementAndGet();
+            } catch(BeerStockConflictException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+
+        // THEN
+        assertThat(applied.get() + conflicts.get(), is(THREADS * CALLS_PER_THREAD));
+        assertThat(quantityOf(beerRepository, beer), is(applied.get()));
+    }
+}
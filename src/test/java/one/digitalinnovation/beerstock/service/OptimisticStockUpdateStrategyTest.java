@@ -0,0 +1,164 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockConflictException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.slf4j.LoggerFactory;
+
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticStockUpdateStrategyTest {
+
+    private static final long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private OptimisticStockUpdateStrategy stockUpdateStrategy;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        StockProperties stockProperties = new StockProperties();
+        stockProperties.setMaxAttempts(3);
+        stockProperties.setRetryBackoff(Duration.ofMillis(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+        stockUpdateStrategy = new OptimisticStockUpdateStrategy(
+                beerRepository, transactionTemplate, stockProperties, meterRegistry);
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void whenVersionConflictsThenTheMutationIsRetried()
+            throws Exception {
+
+        // GIVEN
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+        when(beerRepository.saveAndFlush(beer))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, VALID_BEER_ID))
+                .thenReturn(beer);
+
+        // THEN
+        Beer incrementedBeer = stockUpdateStrategy.increment(VALID_BEER_ID, 1);
+
+        assertThat(incrementedBeer.getQuantity(), is(12));
+        assertThat(meterRegistry.get(OptimisticStockUpdateStrategy.RETRIES_COUNTER)
+                .counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenRetriesAreExhaustedThenAConflictIsThrown() {
+
+        // GIVEN
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+        when(beerRepository.saveAndFlush(beer))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, VALID_BEER_ID));
+
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        Logger logger = (Logger) LoggerFactory.getLogger(OptimisticStockUpdateStrategy.class);
+        logger.addAppender(appender);
+
+        // THROW
+        try {
+            assertThrows(BeerStockConflictException.class,
+                    () -> stockUpdateStrategy.decrement(VALID_BEER_ID, 1));
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        verify(beerRepository, times(3)).saveAndFlush(beer);
+        assertThat(appender.list, hasSize(1));
+        assertThat(appender.list.get(0).getLevel(), is(Level.WARN));
+        assertThat(appender.list.get(0).getArgumentArray()[0], is(VALID_BEER_ID));
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenThrowsAnException() {
+
+        // GIVEN
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> stockUpdateStrategy.increment(VALID_BEER_ID, 41));
+
+        verify(beerRepository, never()).saveAndFlush(beer);
+    }
+
+    @Test
+    void whenDecrementAfterSubIsLessThanZeroThenThrowsAnException() {
+
+        // GIVEN
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+
+        // THROW
+        assertThrows(BeerStockNegativeException.class,
+                () -> stockUpdateStrategy.decrement(VALID_BEER_ID, 11));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenThrowsAnException() {
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> stockUpdateStrategy.increment(VALID_BEER_ID, 1));
+    }
+}
@@ -0,0 +1,191 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.StockSlotRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static one.digitalinnovation.beerstock.service.StockConcurrencyUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "beerstock.stock.strategy=sharded",
+        "beerstock.sharded.slots=4"
+})
+public class ShardedStockConcurrencyTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockSlotRepository stockSlotRepository;
+
+    @Autowired
+    private ShardedStockUpdateStrategy stockUpdateStrategy;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenABeerIsFirstChangedThenItsStockIsSplitAcrossTheSlots() throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, 100, 10);
+
+        // WHEN
+        BeerDTO incrementedBeer = beerService.increment(beer.getId(), 2);
+
+        // THEN
+        assertThat(incrementedBeer.getQuantity(), is(12));
+        assertThat(stockSlotRepository.findAll(), hasSize(4));
+        assertThat(slotQuantityOf(beer), is(12L));
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameBeerThenEachVersionReportsItsOwnStock() throws Exception {
+
+        // GIVEN
+        int initialQuantity = 10;
+        Beer beer = saveBeer(beerRepository, THREADS * CALLS_PER_THREAD + initialQuantity, initialQuantity);
+        Map<Long, Integer> quantitiesByVersion = new ConcurrentHashMap<>();
+        Set<Boolean> consistent = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        run(() -> {
+            Beer incrementedBeer = stockUpdateStrategy.increment(beer.getId(), 1);
+            Integer previous = quantitiesByVersion.putIfAbsent(incrementedBeer.getVersion(),
+                    incrementedBeer.getQuantity());
+
+            // Every committed increment adds one unit and one to the version
+            consistent.add(incrementedBeer.getQuantity() - initialQuantity == incrementedBeer.getVersion()
+                    && (previous == null || previous == incrementedBeer.getQuantity()));
+        });
+
+        // THEN
+        assertThat(consistent, contains(true));
+        assertThat(Collections.max(quantitiesByVersion.values()), is(THREADS * CALLS_PER_THREAD + initialQuantity));
+    }
+
+    @Test
+    void whenTheStockColumnIsBehindThenReadsReportTheSummedStock() throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, 100, 10);
+
+        // WHEN
+        beerService.increment(beer.getId(), 5);
+
+        // THEN
+        assertThat(quantityOf(beerRepository, beer), is(10));
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(15));
+        assertThat(beerService.listAll(null, 10, null).getBeers().get(0).getQuantity(), is(15));
+        assertThat(beerService.listAll(null, 10, "quantity").getBeers().get(0).getQuantity(), is(15));
+    }
+
+    @Test
+    void whenManyThreadsChangeTheSameBeerThenTheSlotsAddUpAndAreRolledUp() throws Exception {
+
+        // GIVEN
+        int calls = THREADS * CALLS_PER_THREAD;
+        Beer beer = saveBeer(beerRepository, calls * 2, calls);
+        AtomicInteger counter = new AtomicInteger();
+
+        // WHEN
+        run(() -> {
+            if(counter.incrementAndGet() % 2 == 0) {
+                beerService.increment(beer.getId(), 3);
+            } else {
+                beerService.decrement(beer.getId(), 1);
+            }
+        });
+        stockUpdateStrategy.rollUp();
+
+        // THEN
+        assertThat(slotQuantityOf(beer), is((long) calls * 2));
+        assertThat(quantityOf(beerRepository, beer), is(calls * 2));
+    }
+
+    @Test
+    void whenMoreDecrementsThanStockArriveTogetherThenDrySlotsBorrowAndOnlyTheExcessIsRejected()
+            throws Exception {
+
+        // GIVEN
+        int stock = THREADS * CALLS_PER_THREAD / 2;
+        Beer beer = saveBeer(beerRepository, stock, stock);
+        AtomicInteger rejected = new AtomicInteger();
+
+        // WHEN
+        run(() -> {
+            try {
+                beerService.decrement(beer.getId(), 1);
+            } catch(BeerStockNegativeException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        // THEN
+        assertThat(rejected.get(), is(THREADS * CALLS_PER_THREAD - stock));
+        assertThat(slotQuantityOf(beer), is(0L));
+    }
+
+    @Test
+    void whenIncrementExceedsTheSummedMaxThenThrowsAnException() throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, 10, 5);
+        beerService.increment(beer.getId(), 1);
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> beerService.increment(beer.getId(), 5));
+    }
+
+    @Test
+    void whenTheStrategyStopsThenTheSlotsAreFoldedIntoTheStockColumn() throws Exception {
+
+        // GIVEN
+        Beer beer = saveBeer(beerRepository, 100, 10);
+        beerService.decrement(beer.getId(), 4);
+
+        // WHEN
+        stockUpdateStrategy.fold();
+
+        // THEN
+        assertThat(stockSlotRepository.count(), is(0L));
+        assertThat(quantityOf(beerRepository, beer), is(6));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenThrowsAnException() {
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> beerService.decrement(Long.MAX_VALUE, 1));
+    }
+
+    private long slotQuantityOf(Beer beer) {
+        return stockSlotRepository.sumByBeerIdIn(Collections.singleton(beer.getId())).get(0).getQuantity();
+    }
+}
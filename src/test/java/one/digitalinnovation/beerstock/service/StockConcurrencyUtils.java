@@ -0,0 +1,77 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared harness of the stock strategy concurrency tests: {@link #THREADS}
+ * threads released together, each making {@link #CALLS_PER_THREAD} calls.
+ */
+public class StockConcurrencyUtils {
+
+    public static final int THREADS = 8;
+    public static final int CALLS_PER_THREAD = 25;
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs {@code call} from every thread and rethrows the first failure.
+     */
+    public static void run(Call call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        for(int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+
+                for(int j = 0; j < CALLS_PER_THREAD; j++) {
+                    call.run();
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+
+        for(Future<?> result : results) {
+            result.get();
+        }
+    }
+
+    public static Beer saveBeer(BeerRepository beerRepository, int max, int quantity) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(null)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+
+        return beerRepository.save(BeerMapper.INSTANCE.toModel(beerDTO));
+    }
+
+    /**
+     * The stock column of the beer's row, whatever the strategy reports.
+     */
+    public static int quantityOf(BeerRepository beerRepository, Beer beer) {
+        return beerRepository.findById(beer.getId())
+                .orElseThrow(IllegalStateException::new)
+                .getQuantity();
+    }
+}
@@ -0,0 +1,168 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.StockMovement;
+import one.digitalinnovation.beerstock.dto.StockMovementPageDTO;
+import one.digitalinnovation.beerstock.event.StockMovedEvent;
+import one.digitalinnovation.beerstock.enums.StockMovementReason;
+import one.digitalinnovation.beerstock.repository.StockMovementRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Arrays;
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerServiceTest {
+
+    private static final long BEER_ID = 1L;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockLedgerService stockLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        LedgerProperties ledgerProperties = new LedgerProperties();
+        ledgerProperties.setQueueCapacity(3);
+        ledgerProperties.setBatchSize(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        stockLedgerService = new StockLedgerService(stockMovementRepository, transactionManager, ledgerProperties,
+                meterRegistry);
+    }
+
+    @Test
+    void whenMovementsAreRecordedThenNothingIsWrittenUntilFlush() {
+
+        // WHEN
+        stockLedgerService.onStockMoved(movedEvent(5, 15));
+        stockLedgerService.onStockMoved(movedEvent(-3, 12));
+        stockLedgerService.onStockMoved(movedEvent(1, 13));
+
+        verifyNoInteractions(stockMovementRepository);
+
+        stockLedgerService.flush();
+
+        // THEN
+        List<List<StockMovement>> batches = capturedBatches(2);
+
+        assertThat(batches.get(0), hasSize(2));
+        assertThat(batches.get(1), hasSize(1));
+        assertThat(batches.get(1).get(0).getResultingQuantity(), is(13));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void whenTheQueueIsFullThenThePublisherFlushesIt() {
+
+        // WHEN
+        for(int i = 1; i <= 4; i++) {
+            stockLedgerService.onStockMoved(movedEvent(1, i));
+        }
+
+        // THEN
+        List<List<StockMovement>> batches = capturedBatches(2);
+
+        assertThat(batches.get(0).get(0).getResultingQuantity(), is(1));
+        assertThat(batches.get(1).get(0).getResultingQuantity(), is(3));
+    }
+
+    @Test
+    void whenAnInsertFailsThenTheBatchIsInsertedByTheNextFlush() {
+
+        // GIVEN
+        stockLedgerService.onStockMoved(movedEvent(5, 15));
+        stockLedgerService.onStockMoved(movedEvent(-3, 12));
+
+        // WHEN
+        when(stockMovementRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(DataAccessResourceFailureException.class, stockLedgerService::flush);
+        stockLedgerService.flush();
+
+        // THEN
+        List<List<StockMovement>> batches = capturedBatches(2);
+
+        assertThat(batches.get(1), hasSize(2));
+        assertThat(batches.get(1).get(1).getResultingQuantity(), is(12));
+    }
+
+    @Test
+    void whenTheQueueIsFullAndCannotBeFlushedThenTheMovementIsDroppedWithoutFailingThePublisher() {
+
+        // GIVEN
+        when(stockMovementRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // WHEN
+        for(int i = 1; i <= 4; i++) {
+            stockLedgerService.onStockMoved(movedEvent(1, i));
+        }
+
+        // THEN
+        assertThat(meterRegistry.get(StockLedgerService.DROPPED_COUNTER).counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenHistoryIsRequestedThenQueuedMovementsAreFlushedFirst()
+            throws Exception {
+
+        // GIVEN
+        StockMovement first = new StockMovement(10L, BEER_ID, 5, 15, StockMovementReason.INCREMENT, Instant.now());
+        StockMovement second = new StockMovement(11L, BEER_ID, -3, 12, StockMovementReason.DECREMENT, Instant.now());
+
+        stockLedgerService.onStockMoved(movedEvent(-3, 12));
+
+        // WHEN
+        when(stockMovementRepository.findByBeerIdAndIdGreaterThanOrderByIdAsc(BEER_ID, 0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(first, second));
+
+        // THEN
+        StockMovementPageDTO page = stockLedgerService.findMovements(BEER_ID, null, 1);
+
+        assertThat(page.getMovements(), hasSize(1));
+        assertThat(page.getMovements().get(0).getId(), is(10L));
+        assertThat(page.getNextCursor(), is(notNullValue()));
+
+        verify(stockMovementRepository, times(1)).saveAll(anyList());
+    }
+
+    private StockMovedEvent movedEvent(int delta, int resultingQuantity) {
+        StockMovementReason reason = delta > 0 ? StockMovementReason.INCREMENT : StockMovementReason.DECREMENT;
+        return new StockMovedEvent(BEER_ID, delta, resultingQuantity, reason, Instant.now());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<StockMovement>> capturedBatches(int expectedBatches) {
+        ArgumentCaptor<List<StockMovement>> batches = ArgumentCaptor.forClass(List.class);
+        verify(stockMovementRepository, times(expectedBatches)).saveAll(batches.capture());
+
+        return batches.getAllValues();
+    }
+}
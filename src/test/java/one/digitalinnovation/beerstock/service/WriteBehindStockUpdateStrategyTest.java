@@ -0,0 +1,209 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.BeerCacheProperties;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.event.StockSyncedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockNegativeException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Set;
+import java.util.List;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindStockUpdateStrategyTest {
+
+    private static final long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MeterRegistry meterRegistry;
+
+    private WriteBehindStockUpdateStrategy strategy;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        lenient().when(beerRepository.findAll()).thenAnswer(invocation -> Collections.singletonList(storedBeer()));
+
+        strategy = new WriteBehindStockUpdateStrategy(beerRepository, jdbcTemplate,
+                new BeerCache(new BeerCacheProperties(), meterRegistry), eventPublisher,
+                new WriteBehindProperties(), meterRegistry);
+        strategy.load();
+    }
+
+    @Test
+    void whenStockChangesSeveralTimesThenOneRowIsFlushed()
+            throws Exception {
+
+        // WHEN
+        strategy.increment(VALID_BEER_ID, 5);
+        Beer decrementedBeer = strategy.decrement(VALID_BEER_ID, 2);
+
+        // THEN
+        assertThat(decrementedBeer.getQuantity(), is(13));
+        assertThat(decrementedBeer.getVersion(), is(2L));
+        assertThat(meterRegistry.get(WriteBehindStockUpdateStrategy.FLUSH_PENDING_GAUGE).gauge().value(), is(1.0));
+        verifyNoInteractions(jdbcTemplate);
+
+        strategy.flush();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(1), any());
+        verify(eventPublisher).publishEvent(any(StockSyncedEvent.class));
+        assertThat(meterRegistry.get(WriteBehindStockUpdateStrategy.FLUSH_PENDING_GAUGE).gauge().value(), is(0.0));
+        assertThat(strategy.flushLagNanos(), is(0L));
+    }
+
+    @Test
+    void whenStockChangesThenReadsReportItBeforeTheFlush()
+            throws Exception {
+
+        // WHEN
+        strategy.increment(VALID_BEER_ID, 5);
+
+        // THEN
+        assertThat(strategy.currentQuantities(Collections.singleton(VALID_BEER_ID)).get(VALID_BEER_ID), is(15));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void whenAFlushFailsThenTheBeerIsFlushedAgainNextTime()
+            throws Exception {
+
+        // GIVEN
+        strategy.increment(VALID_BEER_ID, 1);
+
+        // WHEN
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[][] {{1}});
+
+        // THEN
+        assertThrows(DataAccessResourceFailureException.class, strategy::flush);
+        assertThat(strategy.flushLagNanos(), is(greaterThan(0L)));
+
+        strategy.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), eq(1), any());
+        assertThat(strategy.flushLagNanos(), is(0L));
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenThrowsAnException() {
+
+        // THROW
+        assertThrows(BeerStockExceededException.class,
+                () -> strategy.increment(VALID_BEER_ID, 41));
+    }
+
+    @Test
+    void whenDecrementIsGreaterThanQuantityThenThrowsAnException() {
+
+        // THROW
+        assertThrows(BeerStockNegativeException.class,
+                () -> strategy.decrement(VALID_BEER_ID, 11));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenThrowsAnException() {
+
+        // GIVEN
+        strategy.onBeerChanged(new BeerChangedEvent(BeerChangedEvent.Type.DELETED,
+                beerMapper.toDTO(storedBeer()), 0L));
+
+        // WHEN
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // THROW
+        assertThrows(BeerNotFoundException.class,
+                () -> strategy.decrement(VALID_BEER_ID, 1));
+    }
+
+    @Test
+    void whenManyThreadsChangeTheSameBeerThenNoChangeIsLost()
+            throws Exception {
+
+        // GIVEN
+        int threads = 8;
+        int callsPerThread = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> seenVersions = ConcurrentHashMap.newKeySet();
+        List<Future<?>> results = new ArrayList<>();
+
+        // WHEN
+        for(int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+
+                for(int j = 0; j < callsPerThread; j++) {
+                    seenVersions.add(strategy.decrement(VALID_BEER_ID, 1).getVersion());
+                    seenVersions.add(strategy.increment(VALID_BEER_ID, 1).getVersion());
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+        executor.shutdown();
+
+        for(Future<?> result : results) {
+            result.get();
+        }
+
+        // THEN
+        assertThat(strategy.currentQuantities(Collections.singleton(VALID_BEER_ID)).get(VALID_BEER_ID),
+                is(10));
+        assertThat(seenVersions.size(), is(threads * callsPerThread * 2));
+    }
+
+    private Beer storedBeer() {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        beer.setVersion(0L);
+
+        return beer;
+    }
+}
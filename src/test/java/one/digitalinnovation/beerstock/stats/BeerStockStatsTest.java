@@ -0,0 +1,215 @@
+package one.digitalinnovation.beerstock.stats;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.dto.StockTotalsDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockStatsDTO;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.index.IndexProperties;
+import one.digitalinnovation.beerstock.repository.BeerTypeStock;
+import one.digitalinnovation.beerstock.repository.BeerBrandStock;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.StockUpdateStrategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Collections;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerStockStatsTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BeerTypeStock lagerStock;
+
+    @Mock
+    private BeerBrandStock ambevStock;
+
+    @Mock
+    private StockUpdateStrategy stockUpdateStrategy;
+
+    private BeerStockStats beerStockStats;
+
+    private final IndexProperties indexProperties = new IndexProperties();
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @BeforeEach
+    void setUp() {
+        beerStockStats = new BeerStockStats(beerRepository, entityManager, stockUpdateStrategy,
+                indexProperties);
+    }
+
+    @Test
+    void whenTheStatsAreRebuiltThenBeersAreSummedPerTypeAndBrand() {
+
+        // GIVEN
+        Beer brahma = beer(1L, "Ambev", BeerType.LAGER, 50, 10);
+        Beer skol = beer(2L, "Ambev", BeerType.LAGER, 50, 15);
+        Beer colorado = beer(3L, "Colorado", BeerType.IPA, 20, 20);
+
+        // WHEN
+        when(beerRepository.streamAll()).thenReturn(Stream.of(brahma, skol, colorado));
+        beerStockStats.rebuild();
+
+        // THEN
+        BeerStockStatsDTO stats = beerStockStats.snapshot();
+        StockTotalsDTO lager = group(stats.getByType(), "LAGER");
+
+        assertThat(lager.getBeers(), is(2L));
+        assertThat(lager.getQuantity(), is(25L));
+        assertThat(lager.getCapacity(), is(100L));
+        assertThat(lager.getFillPercentage(), is(25.0));
+        assertThat(group(stats.getByType(), "IPA").getFillPercentage(), is(100.0));
+        assertThat(group(stats.getByType(), "STOUT").getBeers(), is(0L));
+        assertThat(stats.getByBrand(), hasSize(2));
+        assertThat(group(stats.getByBrand(), "Ambev").getQuantity(), is(25L));
+        assertThat(beerStockStats.quantityOf(BeerType.LAGER), is(25L));
+    }
+
+    @Test
+    void whenBeersChangeThenOnlyTheirDeltaIsApplied() {
+
+        // GIVEN
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Ambev", 50, 10), 0L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Colorado", 50, 20), 0L));
+
+        // WHEN
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Ambev", 50, 30), 2L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.STOCK_CHANGED, dto(1L, "Ambev", 50, 12), 1L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(2L, "Colorado", 50, 20), 0L));
+
+        // THEN
+        BeerStockStatsDTO stats = beerStockStats.snapshot();
+
+        assertThat(beerStockStats.quantityOf(BeerType.LAGER), is(30L));
+        assertThat(group(stats.getByType(), "LAGER").getBeers(), is(1L));
+        assertThat(stats.getByBrand(), hasSize(1));
+        assertThat(group(stats.getByBrand(), "Ambev").getCapacity(), is(50L));
+    }
+
+    @Test
+    void whenTheStatsAreReconciledThenTheDatabaseTotalsWin() {
+
+        // GIVEN
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Ambev", 50, 10), 0L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Colorado", 50, 20), 0L));
+
+        // WHEN
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(true);
+        when(lagerStock.getType()).thenReturn(BeerType.LAGER);
+        when(lagerStock.getBeers()).thenReturn(1L);
+        when(lagerStock.getQuantity()).thenReturn(12L);
+        when(lagerStock.getCapacity()).thenReturn(50L);
+        when(ambevStock.getBrand()).thenReturn("Ambev");
+        when(ambevStock.getBeers()).thenReturn(1L);
+        when(ambevStock.getQuantity()).thenReturn(12L);
+        when(ambevStock.getCapacity()).thenReturn(50L);
+        when(beerRepository.sumStockByType()).thenReturn(Collections.singletonList(lagerStock));
+        when(beerRepository.sumStockByBrand()).thenReturn(Collections.singletonList(ambevStock));
+
+        beerStockStats.reconcile();
+
+        // THEN
+        BeerStockStatsDTO stats = beerStockStats.snapshot();
+
+        assertThat(beerStockStats.quantityOf(BeerType.LAGER), is(12L));
+        assertThat(stats.getByBrand(), hasSize(1));
+        assertThat(group(stats.getByBrand(), "Ambev").getQuantity(), is(12L));
+    }
+
+    @Test
+    void whenTheStockStrategyDoesNotWriteThroughThenTheStatsAreNotReconciled() {
+
+        // GIVEN
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Ambev", 50, 10), 0L));
+
+        // WHEN
+        when(stockUpdateStrategy.writesThroughToDatabase()).thenReturn(false);
+        beerStockStats.reconcile();
+
+        // THEN
+        assertThat(beerStockStats.quantityOf(BeerType.LAGER), is(10L));
+        verify(beerRepository, never()).sumStockByType();
+    }
+
+    @Test
+    void whenADeletedBeerOutlivesTheTombstoneTtlThenItIsPurged() {
+
+        // GIVEN
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(1L, "Ambev", 50, 10), 0L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.CREATED, dto(2L, "Colorado", 50, 20), 0L));
+        beerStockStats.onBeerChanged(event(BeerChangedEvent.Type.DELETED, dto(2L, "Colorado", 50, 20), 0L));
+
+        // WHEN
+        beerStockStats.purgeDeleted();
+        int trackedWithinTtl = beerStockStats.tracked();
+
+        indexProperties.setTombstoneTtl(Duration.ZERO);
+        beerStockStats.purgeDeleted();
+
+        // THEN
+        assertThat(trackedWithinTtl, is(2));
+        assertThat(beerStockStats.tracked(), is(1));
+        assertThat(beerStockStats.quantityOf(BeerType.LAGER), is(10L));
+    }
+
+    private StockTotalsDTO group(List<StockTotalsDTO> totals, String group) {
+        return totals.stream()
+                .filter(total -> total.getGroup().equals(group))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private Beer beer(Long id, String brand, BeerType type, int max, int quantity) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(id)
+                .name("Beer " + id)
+                .brand(brand)
+                .type(type)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+
+        Beer beer = beerMapper.toModel(beerDTO);
+        beer.setVersion(0L);
+        return beer;
+    }
+
+    private BeerDTO dto(Long id, String brand, int max, int quantity) {
+        return BeerDTOBuilder.builder()
+                .id(id)
+                .name("Beer " + id)
+                .brand(brand)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+    }
+
+    private BeerChangedEvent event(BeerChangedEvent.Type type, BeerDTO beerDTO, Long version) {
+        return new BeerChangedEvent(type, beerDTO, version);
+    }
+}
@@ -0,0 +1,216 @@
+package one.digitalinnovation.beerstock.stream;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+public class BeerChangeStreamTest {
+
+    private final Queue<Runnable> senderTasks = new ArrayDeque<>();
+
+    private final StreamProperties streamProperties = new StreamProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BeerChangeStream beerChangeStream;
+
+    @BeforeEach
+    void setUp() {
+        streamProperties.setBufferSize(2);
+        beerChangeStream = new BeerChangeStream(streamProperties, meterRegistry, senderTasks::add);
+    }
+
+    @Test
+    void whenABeerChangesSeveralTimesBeforeItIsSentThenOnlyItsLatestStateIsSent() {
+
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+        beerChangeStream.register(emitter);
+
+        // WHEN
+        beerChangeStream.onBeerChanged(stockChanged(1L, 10, 1L));
+        beerChangeStream.onBeerChanged(stockChanged(2L, 5, 1L));
+        beerChangeStream.onBeerChanged(stockChanged(1L, 12, 2L));
+        beerChangeStream.onBeerChanged(stockChanged(1L, 11, 3L));
+        runSenderTasks();
+
+        // THEN
+        assertThat(emitter.beers, hasSize(2));
+        assertThat(emitter.beers.get(0).getId(), is(1L));
+        assertThat(emitter.beers.get(0).getQuantity(), is(11));
+        assertThat(emitter.beers.get(1).getId(), is(2L));
+        assertThat(meterRegistry.get(BeerChangeStream.SUBSCRIBERS_GAUGE).gauge().value(), is(1.0));
+    }
+
+    @Test
+    void whenAnOlderEventArrivesAfterANewerOneThenTheNewerStateIsKept() {
+
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+        beerChangeStream.register(emitter);
+
+        // WHEN
+        beerChangeStream.onBeerChanged(stockChanged(1L, 12, 2L));
+        beerChangeStream.onBeerChanged(stockChanged(1L, 10, 1L));
+        runSenderTasks();
+
+        // THEN
+        assertThat(emitter.beers, hasSize(1));
+        assertThat(emitter.beers.get(0).getQuantity(), is(12));
+    }
+
+    @Test
+    void whenASubscriberFallsTooFarBehindThenItIsToldToResync() {
+
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+        beerChangeStream.register(emitter);
+
+        // WHEN
+        beerChangeStream.onBeerChanged(stockChanged(1L, 1, 1L));
+        beerChangeStream.onBeerChanged(stockChanged(2L, 1, 1L));
+        beerChangeStream.onBeerChanged(stockChanged(3L, 1, 1L));
+        runSenderTasks();
+
+        beerChangeStream.onBeerChanged(stockChanged(4L, 1, 1L));
+        runSenderTasks();
+
+        // THEN
+        assertThat(emitter.events, contains(BeerChangeStream.RESYNC_EVENT, "stock_changed"));
+        assertThat(emitter.beers, hasSize(1));
+        assertThat(emitter.beers.get(0).getId(), is(4L));
+    }
+
+    @Test
+    void whenSendingToASubscriberFailsThenItIsUnsubscribed() {
+
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        beerChangeStream.register(emitter);
+
+        // WHEN
+        beerChangeStream.onBeerChanged(stockChanged(1L, 1, 1L));
+        runSenderTasks();
+
+        beerChangeStream.onBeerChanged(stockChanged(1L, 2, 2L));
+
+        // THEN
+        assertThat(senderTasks, is(empty()));
+        assertThat(meterRegistry.get(BeerChangeStream.SUBSCRIBERS_GAUGE).gauge().value(), is(0.0));
+    }
+
+    @Test
+    void whenAWriteStallsThenItsSubscriberIsEvictedAndTheOthersStillReceive() throws Exception {
+
+        // GIVEN
+        streamProperties.setSendTimeout(Duration.ofMillis(10));
+        ExecutorService sender = Executors.newFixedThreadPool(1);
+        SimpleMeterRegistry streamRegistry = new SimpleMeterRegistry();
+        BeerChangeStream stream = new BeerChangeStream(streamProperties, streamRegistry, sender);
+
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter recording = new RecordingEmitter();
+        stream.register(stalled);
+        stream.register(recording);
+
+        // WHEN
+        stream.onBeerChanged(stockChanged(1L, 1, 1L));
+        assertThat(stalled.writing.await(5, TimeUnit.SECONDS), is(true));
+
+        Thread.sleep(50);
+        stream.evictStalled();
+
+        // THEN
+        assertThat(recording.sent.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(stalled.interrupted.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(streamRegistry.get(BeerChangeStream.SUBSCRIBERS_GAUGE).gauge().value(), is(1.0));
+
+        sender.shutdownNow();
+    }
+
+    private void runSenderTasks() {
+        while(!senderTasks.isEmpty()) {
+            senderTasks.poll().run();
+        }
+    }
+
+    private BeerChangedEvent stockChanged(Long id, int quantity, Long version) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(id)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+
+        return new BeerChangedEvent(BeerChangedEvent.Type.STOCK_CHANGED, beerDTO, version);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<BeerDTO> beers = new ArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if(failing) {
+                throw new IOException("Broken pipe");
+            }
+
+            builder.build().forEach(part -> {
+                String text = part.getData().toString();
+
+                if(text.startsWith("event:")) {
+                    events.add(text.substring("event:".length(), text.indexOf('\n')));
+                }
+
+                if(part.getData() instanceof BeerDTO) {
+                    beers.add((BeerDTO) part.getData());
+                }
+            });
+
+            sent.countDown();
+        }
+    }
+
+    /** Blocks every write, as a client whose TCP buffer is full would, until interrupted. */
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+
+            try {
+                new CountDownLatch(1).await();
+            } catch(InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException("Write aborted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package one.digitalinnovation.beerstock.timer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.*;
+
+public class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final int WHEEL_SIZE = 8;
+
+    @Test
+    void whenTheWheelReachesADeadlineThenOnlyDueTimeoutsExpire() {
+
+        // GIVEN
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, 0);
+
+        // WHEN
+        wheel.schedule("first", 250);
+        wheel.schedule("second", 450);
+
+        // THEN
+        assertThat(wheel.advance(200), is(empty()));
+        assertThat(wheel.advance(300), contains("first"));
+        assertThat(wheel.advance(400), is(empty()));
+        assertThat(wheel.advance(500), contains("second"));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    void whenADeadlineIsMoreThanOneTurnAwayThenItWaitsForItsTurn() {
+
+        // GIVEN
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, 0);
+
+        // WHEN
+        wheel.schedule("near", 300);
+        wheel.schedule("far", 300 + TICK * WHEEL_SIZE);
+
+        // THEN
+        assertThat(wheel.advance(300), contains("near"));
+        assertThat(wheel.advance(300 + TICK * (WHEEL_SIZE - 1)), is(empty()));
+        assertThat(wheel.advance(300 + TICK * WHEEL_SIZE), contains("far"));
+    }
+
+    @Test
+    void whenTheWheelFallsBehindOrADeadlineHasPassedThenTimeoutsStillExpire() {
+
+        // GIVEN
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, 1000);
+
+        // WHEN
+        wheel.schedule("past", 500);
+        wheel.schedule("later", 1500);
+
+        // THEN
+        assertThat(wheel.advance(1000 + TICK * WHEEL_SIZE * 3), containsInAnyOrder("past", "later"));
+        assertThat(wheel.size(), is(0));
+    }
+}